@@ -1,6 +1,8 @@
 package com.levelup.auth.config.jwt;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureException;
 import jakarta.servlet.FilterChain;
@@ -13,9 +15,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -27,11 +26,11 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private UserDetailsService userDetailsService;
-
     @Autowired
     private JwtUtils jwtUtils;
+
+    @Autowired(required = false)
+    private TokenRevocationChecker revocationChecker;
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Override
@@ -46,7 +45,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            authenticateUser(token, request, response);
+            if (!authenticateUser(token, request, response)) {
+                return;
+            }
         } catch (Exception e) {
             logger.error("Error en la autenticación: {}", e.getMessage());
             response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error en la autenticación");
@@ -56,22 +57,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private void authenticateUser(String token, HttpServletRequest request, HttpServletResponse response)
+    /**
+     * Autentica con un único parseo del token: el usuario, su id y sus roles viajan
+     * como claims, por lo que no se consulta la base de datos.
+     */
+    private boolean authenticateUser(String token, HttpServletRequest request, HttpServletResponse response)
             throws IOException {
         try {
-            String username = jwtUtils.getUsernameFromToken(token);
+            Claims claims = jwtUtils.getAllClaims(token);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                if (revocationChecker != null && revocationChecker.isRevoked(claims)) {
+                    logger.warn("Token revocado para el usuario: {}", claims.getSubject());
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revocado");
+                    return false;
+                }
 
-                if (jwtUtils.isTokenValid(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                JwtPrincipal principal = JwtPrincipal.fromClaims(claims);
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities());
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+            return true;
         } catch (ExpiredJwtException e) {
             logger.error("Token expirado: {}", e.getMessage());
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token expirado");
@@ -81,13 +90,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } catch (SignatureException e) {
             logger.error("Firma del token no válida: {}", e.getMessage());
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Firma del token no válida");
+        } catch (JwtException e) {
+            logger.error("Token no válido: {}", e.getMessage());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token no válido");
         } catch (IllegalArgumentException e) {
             logger.error("Token ausente o incorrecto: {}", e.getMessage());
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Token ausente o incorrecto");
-        } catch (UsernameNotFoundException e) {
-            logger.error("Usuario no encontrado: {}", e.getMessage());
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Usuario no encontrado");
         }
+        return false;
     }
 
     private String getTokenFromRequest(HttpServletRequest request){
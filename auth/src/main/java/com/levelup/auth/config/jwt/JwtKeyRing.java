@@ -0,0 +1,260 @@
+package com.levelup.auth.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecurityException;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claves de firma del servicio, construidas una sola vez al arrancar.
+ * <p>
+ * Los tokens se firman siempre con la clave activa y llevan su {@code kid} en la cabecera.
+ * Con ES256 o EdDSA las claves públicas se publican en {@code /.well-known/jwks.json} y los
+ * demás servicios verifican sin conocer ningún secreto. El {@code kid} es la huella RFC 7638
+ * de la clave pública, así que cambia siempre que cambia la clave y los servicios que
+ * verifican vuelven a pedir el JWKS en cuanto lo ven.
+ * <p>
+ * HS256 solo sirve para probar auth de forma aislada: productos, carrito y order verifican
+ * con el JWKS y no lo aceptan.
+ * <p>
+ * Las claves anteriores ({@code auth.app.jwtPreviousKeys}, separadas por comas: claves
+ * públicas X.509 en base64 con ES256/EdDSA, {@code kid=secreto} con HS256) se siguen
+ * aceptando para verificar, lo que permite rotar sin invalidar las sesiones abiertas.
+ * Sin {@code auth.app.jwtPrivateKey} solo se arranca con el perfil {@code dev}, con un par
+ * efímero que cambia en cada arranque.
+ */
+@Component
+public class JwtKeyRing {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    public static final String HS256 = "HS256";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+    public static final String DEV_PROFILE = "dev";
+
+    private final String algorithm;
+    private final String activeKeyId;
+    private final Key signingKey;
+    private final Map<String, Key> keys;
+    private final List<Map<String, Object>> publicJwks;
+    private final JwtParser parser;
+
+    @Autowired
+    public JwtKeyRing(@Value("${auth.app.jwtAlgorithm:HS256}") String algorithm,
+                      @Value("${auth.app.jwtKeyId:k1}") String hmacKeyId,
+                      @Value("${auth.app.jwtSecret:}") String activeSecret,
+                      @Value("${auth.app.jwtPrivateKey:}") String privateKey,
+                      @Value("${auth.app.jwtPublicKey:}") String publicKey,
+                      @Value("${auth.app.jwtPreviousKeys:}") String previousKeys,
+                      Environment environment) {
+        this(algorithm, hmacKeyId, activeSecret, privateKey, publicKey, previousKeys,
+                environment.acceptsProfiles(Profiles.of(DEV_PROFILE)));
+    }
+
+    /**
+     * @param hmacKeyId       kid de la clave activa con HS256; con ES256/EdDSA se deriva de la clave
+     * @param ephemeralAllowed si se admite generar un par efímero cuando no hay clave privada
+     */
+    public JwtKeyRing(String algorithm, String hmacKeyId, String activeSecret, String privateKey,
+                      String publicKey, String previousKeys, boolean ephemeralAllowed) {
+        if (!HS256.equals(algorithm) && !ES256.equals(algorithm) && !EDDSA.equals(algorithm)) {
+            throw new IllegalArgumentException("auth.app.jwtAlgorithm no soportado: " + algorithm);
+        }
+        this.algorithm = algorithm;
+
+        Map<String, Key> ring = new HashMap<>();
+        for (String entry : StringUtils.commaDelimitedListToStringArray(previousKeys)) {
+            addPreviousKey(ring, entry.trim());
+        }
+
+        if (HS256.equals(algorithm)) {
+            SecretKey secretKey = toSecretKey(activeSecret);
+            this.signingKey = secretKey;
+            this.activeKeyId = hmacKeyId;
+            ring.put(activeKeyId, secretKey);
+        } else {
+            KeyPair keyPair = loadKeyPair(privateKey, publicKey, ephemeralAllowed);
+            this.signingKey = keyPair.getPrivate();
+            this.activeKeyId = thumbprint(keyPair.getPublic());
+            ring.put(activeKeyId, keyPair.getPublic());
+        }
+        this.keys = Map.copyOf(ring);
+        this.publicJwks = buildPublicJwks();
+
+        // JwtParser es inmutable y thread-safe: uno solo para todas las claves
+        this.parser = Jwts.parser()
+                .keyLocator(new KeyIdLocator())
+                .build();
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public Key getActiveKey() {
+        return signingKey;
+    }
+
+    /**
+     * Claves públicas en formato JWK; vacío con HS256, cuyo secreto nunca se publica.
+     */
+    public List<Map<String, Object>> getPublicJwks() {
+        return publicJwks;
+    }
+
+    /**
+     * Añade el {@code kid} activo y firma con la clave y el algoritmo configurados.
+     */
+    public String sign(JwtBuilder builder) {
+        builder.header().keyId(activeKeyId).and();
+        if (signingKey instanceof SecretKey secretKey) {
+            return builder.signWith(secretKey, Jwts.SIG.HS256).compact();
+        }
+        return builder.signWith((PrivateKey) signingKey, signatureAlgorithm()).compact();
+    }
+
+    public Claims parse(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    private SignatureAlgorithm signatureAlgorithm() {
+        return ES256.equals(algorithm) ? Jwts.SIG.ES256 : Jwts.SIG.EdDSA;
+    }
+
+    private void addPreviousKey(Map<String, Key> ring, String entry) {
+        if (HS256.equals(algorithm)) {
+            String[] keyValue = entry.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("auth.app.jwtPreviousKeys debe tener el formato kid=secreto con HS256");
+            }
+            ring.put(keyValue[0].trim(), toSecretKey(keyValue[1].trim()));
+            return;
+        }
+        // Se admite el formato antiguo kid=clave, pero el kid se deriva siempre de la clave.
+        // El '=' del relleno base64 solo aparece en las dos últimas posiciones
+        int separator = entry.indexOf('=');
+        String value = separator > 0 && entry.length() - separator > 2 ? entry.substring(separator + 1).trim() : entry;
+        PublicKey previous;
+        try {
+            previous = keyFactory().generatePublic(new X509EncodedKeySpec(decodeDer(value)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Clave pública anterior inválida", e);
+        }
+        ring.put(thumbprint(previous), previous);
+    }
+
+    private KeyPair loadKeyPair(String privateKey, String publicKey, boolean ephemeralAllowed) {
+        if (!StringUtils.hasText(privateKey)) {
+            if (!ephemeralAllowed) {
+                throw new IllegalArgumentException("auth.app.jwtPrivateKey es obligatoria con " + algorithm
+                        + " fuera del perfil " + DEV_PROFILE + ": un par efímero invalida los tokens en cada "
+                        + "arranque y no se comparte entre instancias");
+            }
+            logger.warn("auth.app.jwtPrivateKey no configurada: se genera un par de claves {} efímero (perfil {}). "
+                    + "Los tokens dejarán de ser válidos al reiniciar", algorithm, DEV_PROFILE);
+            return ES256.equals(algorithm)
+                    ? Jwts.SIG.ES256.keyPair().build()
+                    : Jwks.CRV.Ed25519.keyPair().build();
+        }
+        if (!StringUtils.hasText(publicKey)) {
+            throw new IllegalArgumentException("auth.app.jwtPublicKey es obligatoria junto a auth.app.jwtPrivateKey");
+        }
+        try {
+            KeyFactory factory = keyFactory();
+            return new KeyPair(
+                    factory.generatePublic(new X509EncodedKeySpec(decodeDer(publicKey))),
+                    factory.generatePrivate(new PKCS8EncodedKeySpec(decodeDer(privateKey))));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Par de claves " + algorithm + " inválido", e);
+        }
+    }
+
+    private KeyFactory keyFactory() throws GeneralSecurityException {
+        return KeyFactory.getInstance(ES256.equals(algorithm) ? "EC" : "Ed25519");
+    }
+
+    private List<Map<String, Object>> buildPublicJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        keys.forEach((keyId, key) -> {
+            if (key instanceof PublicKey publicKey) {
+                PublicJwk<?> jwk = Jwks.builder()
+                        .key(publicKey)
+                        .id(keyId)
+                        .algorithm(algorithm)
+                        .publicKeyUse("sig")
+                        .build();
+                jwks.add(new LinkedHashMap<>(jwk));
+            }
+        });
+        return List.copyOf(jwks);
+    }
+
+    // Huella RFC 7638 (SHA-256) de la clave pública, en base64url
+    private static String thumbprint(PublicKey publicKey) {
+        return Jwks.builder().key(publicKey).idFromThumbprint().build().getId();
+    }
+
+    private static SecretKey toSecretKey(String secret) {
+        if (!StringUtils.hasText(secret)) {
+            throw new IllegalArgumentException("auth.app.jwtSecret es obligatoria con HS256");
+        }
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+
+    // Admite el contenido de un PEM con o sin cabeceras
+    private static byte[] decodeDer(String value) {
+        String base64 = value.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Decoders.BASE64.decode(base64);
+    }
+
+    private class KeyIdLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            String keyId = header.getKeyId();
+            // Tokens emitidos antes de introducir el kid
+            if (keyId == null) {
+                return keys.get(activeKeyId);
+            }
+            Key key = keys.get(keyId);
+            if (key == null) {
+                throw new SecurityException("Clave de firma desconocida: " + keyId);
+            }
+            return key;
+        }
+    }
+}
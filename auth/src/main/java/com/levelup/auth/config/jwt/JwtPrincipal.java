@@ -0,0 +1,49 @@
+package com.levelup.auth.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Usuario autenticado reconstruido únicamente a partir de los claims del token,
+ * sin consultar la base de datos.
+ */
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal {
+
+    private final Long id;
+    private final String username;
+    private final List<String> roles;
+    // "exp" del token; /token/check lo devuelve para que la caché de los demás servicios no lo supere
+    private final Instant expiresAt;
+
+    public static JwtPrincipal fromClaims(Claims claims) {
+        Number id = claims.get(JwtUtils.USER_ID_CLAIM, Number.class);
+        List<?> roles = claims.get(JwtUtils.ROLES_CLAIM, List.class);
+        Date expiration = claims.getExpiration();
+        return new JwtPrincipal(
+                id != null ? id.longValue() : null,
+                claims.getSubject(),
+                roles != null ? roles.stream().map(String::valueOf).toList() : List.of(),
+                expiration != null ? expiration.toInstant() : null);
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
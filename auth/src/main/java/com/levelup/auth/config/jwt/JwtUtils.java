@@ -1,33 +1,36 @@
 package com.levelup.auth.config.jwt;
 
+import com.levelup.auth.model.User;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.UUID;
 import java.util.function.Function;
 
 
 @Service
 public class JwtUtils {
 
-    @Value("${auth.app.jwtSecret}")
-    private String jwtSecret;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+
+    @Autowired
+    private JwtKeyRing keyRing;
 
     @Value("${auth.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
     @Value("${auth.app.jwtCookieName}")
     private String jwtCookie;
-    @Value("${auth.app.jwtRefresh}")
-    private String jwtRefreshMs;
     private static final Logger logger = LoggerFactory.getLogger(AuthEntryPointJwt.class);
 
     public String getUsernameFromToken(String token) {
@@ -35,38 +38,35 @@ public class JwtUtils {
     }
 
     public String getToken(UserDetails user) {
-        return generateTokenFromUsername(new HashMap<>(), user);
+        HashMap<String, Object> claims = new HashMap<>();
+        if (user instanceof User appUser) {
+            claims.put(USER_ID_CLAIM, appUser.getId());
+        }
+        claims.put(ROLES_CLAIM, user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        return generateTokenFromUsername(claims, user);
     }
 
     public Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return keyRing.getActiveKey();
     }
 
     private String generateTokenFromUsername(HashMap<String, Object> extraClaims, UserDetails user) {
         Date issuedAt = new Date();
         Date expiration = new Date(System.currentTimeMillis() + jwtExpirationMs);
 
-        extraClaims.put("issuedAt", issuedAt);
-        extraClaims.put("expiration", expiration);
-
-        String token = Jwts.builder()
+        return keyRing.sign(Jwts.builder()
                 .claims(extraClaims)
                 .subject(user.getUsername())
+                .id(UUID.randomUUID().toString())
                 .issuedAt(issuedAt)
-                .expiration(expiration)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
-        return token;
+                .expiration(expiration));
     }
 
-    private Claims getAllClaims(String token) {
+    public Claims getAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return keyRing.parse(token);
         } catch (Exception e) {
             logger.error("Error al validar token: " + e.getMessage());
             throw e;
@@ -85,11 +85,7 @@ public class JwtUtils {
     }
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = keyRing.parse(token);
 
             final String username = claims.getSubject();
             final boolean isExpired = claims.getExpiration().before(new Date());
@@ -113,16 +109,13 @@ public class JwtUtils {
         }
     }
 
-    public void validateToken(String token) {
+    public Claims validateToken(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            return keyRing.parse(token);
         } catch (ExpiredJwtException ex) {
             logger.warn("Token expirado: {}", ex.getMessage());
             throw ex;
-        } catch (MalformedJwtException | SignatureException | IllegalArgumentException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             logger.error("Token inválido: {}", e.getMessage());
             throw new JwtException("Token inválido", e);
         }
@@ -0,0 +1,13 @@
+package com.levelup.auth.config.jwt;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Punto de extensión opcional del JwtAuthenticationFilter para rechazar tokens
+ * revocados antes de que expiren. Si no hay ningún bean que lo implemente, solo
+ * se validan firma y expiración.
+ */
+public interface TokenRevocationChecker {
+
+    boolean isRevoked(Claims claims);
+}
@@ -0,0 +1,27 @@
+package com.levelup.auth.controller;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+
+/**
+ * Enlaces de AuthenticationController como constantes en lugar de {@code linkTo(methodOn(...))}
+ * por respuesta. Son relativos al host, así que no dependen de la petición, y Link es
+ * inmutable y se puede compartir entre peticiones. La diferencia de coste se mide con
+ * AuthLinksBenchmark.
+ */
+public final class AuthLinks {
+
+    private static final String BASE = "/api/v1/authentication";
+
+    public static final Link SIGN_IN_SELF = Link.of(BASE + "/sign-in", IanaLinkRelations.SELF);
+    public static final Link SIGN_IN = Link.of(BASE + "/sign-in", "sign-in");
+    public static final Link SIGN_UP_SELF = Link.of(BASE + "/sign-up", IanaLinkRelations.SELF);
+    public static final Link SIGN_UP = Link.of(BASE + "/sign-up", "sign-up");
+    public static final Link REGISTER = Link.of(BASE + "/sign-up", "register");
+    public static final Link VERIFY_TOKEN_SELF = Link.of(BASE + "/token/verify", IanaLinkRelations.SELF);
+    public static final Link VERIFY_TOKEN = Link.of(BASE + "/token/verify", "verify-token");
+    public static final Link REFRESH_TOKEN_SELF = Link.of(BASE + "/token/refresh", IanaLinkRelations.SELF);
+
+    private AuthLinks() {
+    }
+}
@@ -1,27 +1,38 @@
 package com.levelup.auth.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.levelup.auth.config.jwt.JwtPrincipal;
 import com.levelup.auth.dto.*;
 import com.levelup.auth.service.AuthService;
+import com.levelup.auth.service.RevocationService;
+import com.levelup.auth.service.UserImportService;
+import com.levelup.auth.service.exception.LoginThrottledException;
+import com.levelup.auth.service.exception.PasswordHashingUnavailableException;
 import com.levelup.auth.service.exception.UserAlreadyExistsException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.service.spi.ServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.naming.AuthenticationException;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/authentication")
@@ -30,21 +41,30 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class AuthenticationController {
 
     private final AuthService authService;
+    private final RevocationService revocationService;
+    private final UserImportService userImportService;
+
+    @Value("${auth.app.verifyBatchMaxSize:500}")
+    private int verifyBatchMaxSize;
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationController.class);
 
     @Operation(summary = "Iniciar sesión", description = "Autentica un usuario y genera token JWT")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Autenticación exitosa"),
-            @ApiResponse(responseCode = "401", description = "Credenciales inválidas")
+            @ApiResponse(responseCode = "401", description = "Credenciales inválidas"),
+            @ApiResponse(responseCode = "429", description = "Demasiados intentos fallidos")
     })
     @PostMapping("/sign-in")
-    public ResponseEntity<EntityModel<AuthResponse>> signIn(@RequestBody LoginRequest request) {
-        AuthResponse authResponse = authService.login(request);
+    public ResponseEntity<EntityModel<AuthResponse>> signIn(@RequestBody LoginRequest request,
+                                                            HttpServletRequest httpRequest) {
+        // Con server.forward-headers-strategy=native es la IP del cliente resuelta desde
+        // X-Forwarded-For del proxy de confianza, no la del gateway
+        AuthResponse authResponse = authService.login(request, httpRequest.getRemoteAddr());
 
         EntityModel<AuthResponse> model = EntityModel.of(authResponse,
-                linkTo(methodOn(AuthenticationController.class).signIn(request)).withSelfRel(),
-                linkTo(methodOn(AuthenticationController.class).verifyToken(new TokenValidationRequest(authResponse.getToken()))).withRel("verify-token"),
-                linkTo(methodOn(AuthenticationController.class).signUp(null)).withRel("register")
+                AuthLinks.SIGN_IN_SELF,
+                AuthLinks.VERIFY_TOKEN,
+                AuthLinks.REGISTER
         );
 
         return ResponseEntity.ok(model);
@@ -64,13 +84,144 @@ public class AuthenticationController {
                 .build();
 
         EntityModel<TokenValidResponse> model = EntityModel.of(response,
-                linkTo(methodOn(AuthenticationController.class).verifyToken(request)).withSelfRel(),
-                linkTo(methodOn(AuthenticationController.class).signIn(null)).withRel("sign-in")
+                AuthLinks.VERIFY_TOKEN_SELF,
+                AuthLinks.SIGN_IN
+        );
+
+        return ResponseEntity.ok(model);
+    }
+
+    @Operation(summary = "Comprobar token",
+            description = "Variante compacta de /token/verify para llamadas entre servicios: "
+                    + "token en la cabecera Authorization y respuesta sin cuerpo ni enlaces")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token válido; la cabecera Expires lleva su \"exp\""),
+            @ApiResponse(responseCode = "401", description = "Token inválido, expirado o revocado")
+    })
+    @PostMapping("/token/check")
+    public ResponseEntity<Void> checkToken(@AuthenticationPrincipal JwtPrincipal principal) {
+        // JwtAuthenticationFilter ya ha verificado firma, expiración y revocación del token
+        // de la cabecera; si no era válido la petición no llega hasta aquí
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Quien cachee el veredicto no debe guardarlo más allá del "exp" del token
+        return ResponseEntity.noContent()
+                .headers(headers -> {
+                    if (principal.getExpiresAt() != null) {
+                        headers.setExpires(principal.getExpiresAt().toEpochMilli());
+                    }
+                })
+                .build();
+    }
+
+    @Operation(summary = "Renovar token", description = "Canjea un refresh token por un nuevo access token y un nuevo refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens renovados"),
+            @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado o reutilizado")
+    })
+    @PostMapping("/token/refresh")
+    public ResponseEntity<EntityModel<AuthResponse>> refreshToken(@RequestBody RefreshTokenRequest request) {
+        AuthResponse authResponse = authService.refresh(request);
+
+        EntityModel<AuthResponse> model = EntityModel.of(authResponse,
+                AuthLinks.REFRESH_TOKEN_SELF,
+                AuthLinks.SIGN_IN
         );
 
         return ResponseEntity.ok(model);
     }
 
+    @Operation(summary = "Verificar tokens en lote",
+            description = "Valida varios tokens JWT en una sola petición y devuelve, en el mismo orden, "
+                    + "el resultado con el usuario y la expiración de cada uno")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado de cada token"),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o mayor que el máximo permitido")
+    })
+    @PostMapping("/token/verify-batch")
+    public ResponseEntity<TokenBatchValidationResponse> verifyTokens(@RequestBody TokenBatchValidationRequest request) {
+        List<String> tokens = request.getTokens();
+        if (tokens == null || tokens.isEmpty() || tokens.size() > verifyBatchMaxSize) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(TokenBatchValidationResponse.builder()
+                .results(authService.validateTokens(tokens))
+                .build());
+    }
+
+    @Operation(summary = "Cerrar sesión", description = "Revoca el access token actual y, si se envía, el refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sesión cerrada"),
+            @ApiResponse(responseCode = "401", description = "Token inválido o ausente")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestBody(required = false) LogoutRequest request) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw new BadCredentialsException("Token ausente");
+        }
+        authService.logout(authorization.substring(7), request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Lista de revocación",
+            description = "Devuelve las revocaciones posteriores a la versión indicada, o el filtro de Bloom "
+                    + "completo cuando el cliente no tiene el snapshot vigente")
+    @ApiResponse(responseCode = "200", description = "Revocaciones")
+    @GetMapping("/revocations")
+    public ResponseEntity<RevocationSnapshotResponse> revocations(@RequestParam(defaultValue = "-1") long since) {
+        return ResponseEntity.ok(revocationService.snapshot(since));
+    }
+
+    @Operation(summary = "Revocar sesiones de usuario", description = "Invalida todos los tokens emitidos a un usuario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sesiones revocadas"),
+            @ApiResponse(responseCode = "403", description = "Requiere rol de administrador")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/revocations/users/{userId}")
+    public ResponseEntity<Void> revokeUser(@PathVariable Long userId) {
+        authService.revokeUserSessions(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Comprobar disponibilidad",
+            description = "Indica si el username y/o el email están libres. Pensado para validar el "
+                    + "formulario de registro mientras se escribe; el alta sigue pudiendo devolver 409")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Disponibilidad de cada campo enviado"),
+            @ApiResponse(responseCode = "400", description = "No se ha enviado username ni email")
+    })
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam(required = false) String username,
+                                                                  @RequestParam(required = false) String email) {
+        if (username == null && email == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(authService.checkAvailability(username, email));
+    }
+
+    @Operation(summary = "Importar usuarios",
+            description = "Alta masiva a partir de un array JSON de {username, email, passwordHash} con hashes BCrypt. "
+                    + "Se procesa en streaming y por lotes; los usuarios o emails ya existentes se omiten")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumen de la importación"),
+            @ApiResponse(responseCode = "400", description = "El cuerpo no es un array JSON válido o está truncado"),
+            @ApiResponse(responseCode = "403", description = "Requiere rol de administrador")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/users/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserImportResponse> importUsers(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(request.getInputStream()));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            logger.warn("Importación de usuarios rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(summary = "Registrar usuario", description = "Crea una nueva cuenta de usuario")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuario registrado exitosamente"),
@@ -83,8 +234,8 @@ public class AuthenticationController {
             AuthResponse response = authService.createUser(request);
 
             EntityModel<AuthResponse> model = EntityModel.of(response,
-                    linkTo(methodOn(AuthenticationController.class).signUp(request)).withSelfRel(),
-                    linkTo(methodOn(AuthenticationController.class).signIn(null)).withRel("sign-in")
+                    AuthLinks.SIGN_UP_SELF,
+                    AuthLinks.SIGN_IN
             );
 
             return ResponseEntity.ok(model);
@@ -116,13 +267,39 @@ public class AuthenticationController {
                 .build();
 
         EntityModel<AuthResponse> model = EntityModel.of(errorResponse,
-                linkTo(methodOn(AuthenticationController.class).signIn(null)).withRel("sign-in"),
-                linkTo(methodOn(AuthenticationController.class).signUp(null)).withRel("sign-up")
+                AuthLinks.SIGN_IN,
+                AuthLinks.SIGN_UP
         );
 
         return ResponseEntity.status(status).body(model);
     }
 
+    @Operation(hidden = true)
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<AuthResponse> handlePasswordHashingUnavailable(PasswordHashingUnavailableException e) {
+        logger.warn("Pool de hashing saturado: {}", e.getMessage());
+
+        AuthResponse errorResponse = AuthResponse.builder()
+                .messageResponse(e.getMessage())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @Operation(hidden = true)
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<AuthResponse> handleLoginThrottled(LoginThrottledException e) {
+        AuthResponse errorResponse = AuthResponse.builder()
+                .messageResponse(e.getMessage())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @Operation(hidden = true)
     @ExceptionHandler(Exception.class)
     public ResponseEntity<EntityModel<AuthResponse>> handleGenericException(Exception e) {
@@ -133,8 +310,8 @@ public class AuthenticationController {
                 .build();
 
         EntityModel<AuthResponse> model = EntityModel.of(errorResponse,
-                linkTo(methodOn(AuthenticationController.class).signIn(null)).withRel("sign-in"),
-                linkTo(methodOn(AuthenticationController.class).signUp(null)).withRel("sign-up")
+                AuthLinks.SIGN_IN,
+                AuthLinks.SIGN_UP
         );
 
         return ResponseEntity.internalServerError().body(model);
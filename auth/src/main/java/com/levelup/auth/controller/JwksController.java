@@ -0,0 +1,33 @@
+package com.levelup.auth.controller;
+
+import com.levelup.auth.config.jwt.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS", description = "Claves públicas para verificar los tokens emitidos")
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    @Value("${auth.app.jwksMaxAge:1h}")
+    private Duration jwksMaxAge;
+
+    @Operation(summary = "Claves públicas", description = "Conjunto JWK con las claves de verificación vigentes")
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwksMaxAge).cachePublic())
+                .body(Map.of("keys", keyRing.getPublicJwks()));
+    }
+}
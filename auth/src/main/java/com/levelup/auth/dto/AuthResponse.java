@@ -15,6 +15,7 @@ import java.util.Set;
 public class AuthResponse {
 
     private String token;
+    private String refreshToken;
     private Date issuedAt;
     private Date expiresAt;
     private String username;
@@ -0,0 +1,12 @@
+package com.levelup.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class LogoutRequest {
+    private String refreshToken;
+}
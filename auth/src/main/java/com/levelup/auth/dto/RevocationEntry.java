@@ -0,0 +1,22 @@
+package com.levelup.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RevocationEntry {
+    private Long id;
+    private String jti;
+    private Long userId;
+    private Instant revokedAt;
+    private Instant expiresAt;
+}
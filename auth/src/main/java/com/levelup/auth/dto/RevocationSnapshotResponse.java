@@ -0,0 +1,27 @@
+package com.levelup.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RevocationSnapshotResponse {
+    // Última revocación incluida en el filtro de Bloom
+    private long snapshotVersion;
+    // Última revocación conocida; el cliente la envía como "since" en la siguiente consulta
+    private long version;
+    // Solo viaja cuando el cliente no tiene ya este snapshot
+    private String bloomBits;
+    private Integer bloomSize;
+    private Integer bloomHashes;
+    // Revocaciones exactas: por usuario y las de jti posteriores al snapshot
+    private List<RevocationEntry> entries;
+}
@@ -0,0 +1,14 @@
+package com.levelup.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class TokenBatchValidationRequest {
+    private List<String> tokens;
+}
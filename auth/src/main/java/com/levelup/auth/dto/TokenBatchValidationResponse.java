@@ -0,0 +1,17 @@
+package com.levelup.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenBatchValidationResponse {
+    // Mismo orden que los tokens de la petición
+    private List<TokenVerdict> results;
+}
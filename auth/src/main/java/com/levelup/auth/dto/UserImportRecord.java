@@ -0,0 +1,15 @@
+package com.levelup.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class UserImportRecord {
+    private String username;
+    private String email;
+    // Hash BCrypt ya calculado por el sistema de origen
+    private String passwordHash;
+}
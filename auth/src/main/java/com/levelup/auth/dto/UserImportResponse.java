@@ -0,0 +1,18 @@
+package com.levelup.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResponse {
+    private long received;
+    private long inserted;
+    // Usuario o email ya existentes
+    private long skipped;
+    private long invalid;
+}
@@ -0,0 +1,34 @@
+package com.levelup.auth.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // Solo se guarda el SHA-256 del token; el índice único hace la búsqueda O(1)
+    @Column(name = "token_hash", unique = true, nullable = false, length = 64)
+    private String tokenHash;
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    @Column(name = "used_at")
+    private Instant usedAt;
+    private boolean revoked;
+}
@@ -0,0 +1,34 @@
+package com.levelup.auth.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Revocación de un token concreto (jti) o de todos los tokens de un usuario emitidos
+ * hasta revokedAt (jti nulo). El id es creciente y sirve como versión de la lista.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires", columnList = "expires_at")
+})
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(length = 36)
+    private String jti;
+    @Column(name = "user_id")
+    private Long userId;
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+    // A partir de aquí el token ya habría expirado y la entrada deja de ser necesaria
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
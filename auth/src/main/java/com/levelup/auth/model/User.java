@@ -9,6 +9,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.security.Timestamp;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -21,14 +22,25 @@ import java.util.stream.Collectors;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+        @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email")
+})
+@EntityListeners(UserCacheEvictionListener.class)
 public class User implements UserDetails{
+    // Nombres fijos para poder traducir la violación a UserAlreadyExistsException
+    public static final String UK_USERNAME = "uk_users_username";
+    public static final String UK_EMAIL = "uk_users_email";
+    // Longitud de las columnas; la importación masiva (INSERT IGNORE) truncaría en silencio lo que las supere
+    public static final int USERNAME_MAX_LENGTH = 255;
+    public static final int EMAIL_MAX_LENGTH = 255;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @Column(name = "username" ,unique=true,nullable = false)
+    @Column(name = "username" ,nullable = false, length = USERNAME_MAX_LENGTH)
     private String username;
-    @Column(name = "email" ,unique=true,nullable = false)
+    @Column(name = "email" ,nullable = false, length = EMAIL_MAX_LENGTH)
     private String email;
     private String password;
     @ManyToMany(fetch = FetchType.EAGER)
@@ -46,6 +58,8 @@ public class User implements UserDetails{
     private boolean enabled = true;
     private boolean locked = false;
     private int failedLoginAttempts = 0;
+    // Bloqueo automático por intentos fallidos; nulo si se bloqueó manualmente
+    private Instant lockedAt;
 
 
     @Override
@@ -55,7 +69,12 @@ public class User implements UserDetails{
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of();
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.getName()))
+                .collect(Collectors.toList());
     }
 
     @Override
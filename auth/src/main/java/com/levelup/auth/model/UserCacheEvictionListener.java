@@ -0,0 +1,29 @@
+package com.levelup.auth.model;
+
+import com.levelup.auth.service.CustomUserDetailsService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalida la caché de CustomUserDetailsService cada vez que se guarda, bloquea,
+ * deshabilita o elimina un User. Los cambios hechos con consultas de actualización
+ * masiva no pasan por aquí y deben llamar a evict explícitamente.
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    @Autowired
+    @Lazy
+    private CustomUserDetailsService userDetailsService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userDetailsService.evict(user.getUsername());
+    }
+}
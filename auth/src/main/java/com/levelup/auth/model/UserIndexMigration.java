@@ -0,0 +1,72 @@
+package com.levelup.auth.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Borra los índices únicos de users con nombre generado por Hibernate ({@code unique = true} en
+ * la columna) que quedan en las bases creadas antes de nombrarlos {@link User#UK_USERNAME} y
+ * {@link User#UK_EMAIL}. ddl-auto=update añade los nuevos pero no quita los viejos, y si MySQL
+ * informa del viejo el alta duplicada no se puede traducir al mensaje del campo.
+ * <p>
+ * Solo se borra un índice antiguo si ya existe el nuevo sobre la misma columna, así que nunca
+ * se pierde la restricción. Con el esquema ya migrado no hace nada.
+ */
+@Component
+public class UserIndexMigration implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(UserIndexMigration.class);
+
+    // Índices únicos de una sola columna en users
+    private static final String UNIQUE_INDEXES = """
+            SELECT INDEX_NAME AS index_name, MIN(COLUMN_NAME) AS column_name
+            FROM information_schema.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'users'
+              AND NON_UNIQUE = 0 AND INDEX_NAME <> 'PRIMARY'
+            GROUP BY INDEX_NAME
+            HAVING COUNT(*) = 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserIndexMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        List<Map<String, Object>> indexes = jdbcTemplate.queryForList(UNIQUE_INDEXES);
+        dropLegacy(indexes, "username", User.UK_USERNAME);
+        dropLegacy(indexes, "email", User.UK_EMAIL);
+    }
+
+    private void dropLegacy(List<Map<String, Object>> indexes, String column, String expectedName) {
+        boolean named = indexes.stream()
+                .anyMatch(index -> expectedName.equalsIgnoreCase(nameOf(index))
+                        && column.equalsIgnoreCase(columnOf(index)));
+        if (!named) {
+            logger.warn("users.{} no tiene el índice único {}; se mantienen los existentes", column, expectedName);
+            return;
+        }
+        for (Map<String, Object> index : indexes) {
+            String name = nameOf(index);
+            if (column.equalsIgnoreCase(columnOf(index)) && !expectedName.equalsIgnoreCase(name)) {
+                jdbcTemplate.execute("ALTER TABLE users DROP INDEX `" + name.replace("`", "``") + "`");
+                logger.info("Índice único antiguo {} sobre users.{} eliminado", name, column);
+            }
+        }
+    }
+
+    private static String nameOf(Map<String, Object> index) {
+        return String.valueOf(index.get("index_name"));
+    }
+
+    private static String columnOf(Map<String, Object> index) {
+        return String.valueOf(index.get("column_name"));
+    }
+}
@@ -2,7 +2,12 @@ package com.levelup.auth.repository;
 
 import com.levelup.auth.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User,Long> {
@@ -12,4 +17,27 @@ public interface UserRepository extends JpaRepository<User,Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = u.failedLoginAttempts + 1 WHERE u.username = :username")
+    int incrementFailedLoginAttempts(@Param("username") String username);
+
+    @Modifying
+    @Query("UPDATE User u SET u.locked = true, u.lockedAt = :now WHERE u.username = :username "
+            + "AND u.locked = false AND u.failedLoginAttempts >= :maxAttempts")
+    int lockIfAttemptsReached(@Param("username") String username,
+                              @Param("maxAttempts") int maxAttempts,
+                              @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = 0 WHERE u.username = :username AND u.failedLoginAttempts > 0")
+    int resetFailedLoginAttempts(@Param("username") String username);
+
+    @Query("SELECT u.username FROM User u WHERE u.locked = true AND u.lockedAt < :cutoff")
+    List<String> findUsernamesLockedBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("UPDATE User u SET u.locked = false, u.lockedAt = null, u.failedLoginAttempts = 0 "
+            + "WHERE u.locked = true AND u.lockedAt < :cutoff")
+    int unlockLockedBefore(@Param("cutoff") Instant cutoff);
 }
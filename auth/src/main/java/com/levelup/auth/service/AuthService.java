@@ -3,27 +3,35 @@ package com.levelup.auth.service;
 
 import com.levelup.auth.config.jwt.JwtUtils;
 import com.levelup.auth.dto.AuthResponse;
+import com.levelup.auth.dto.AvailabilityResponse;
 import com.levelup.auth.dto.LoginRequest;
+import com.levelup.auth.dto.LogoutRequest;
+import com.levelup.auth.dto.RefreshTokenRequest;
 import com.levelup.auth.dto.RegisterRequest;
+import com.levelup.auth.dto.TokenVerdict;
 
 
 import com.levelup.auth.model.Role;
 import com.levelup.auth.model.User;
-import com.levelup.auth.repository.RoleRepository;
 import com.levelup.auth.repository.UserRepository;
+import com.levelup.auth.service.exception.PasswordHashingUnavailableException;
 import com.levelup.auth.service.exception.UserAlreadyExistsException;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.hibernate.service.spi.ServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -31,10 +39,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
-import javax.management.relation.RoleNotFoundException;
 import java.security.SignatureException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
 
@@ -43,8 +53,6 @@ import java.util.Objects;
 public class AuthService {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Autowired
-    private RoleRepository roleRepository;
     @Autowired
     private UserRepository userRepository;
     @Autowired
@@ -53,10 +61,24 @@ public class AuthService {
     private  PasswordEncoder passwordEncoder;
     @Autowired
     private AuthenticationManager authenticationManager;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private RevocationService revocationService;
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+    @Autowired
+    private RoleCache roleCache;
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
     @Value("${auth.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        // Antes de tocar BCrypt o la base de datos
+        loginThrottleService.checkAllowed(request.getUsername(), clientIp);
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -70,18 +92,30 @@ public class AuthService {
             Date issuedAt = new Date();
             Date expiration = new Date(System.currentTimeMillis() + jwtExpirationMs);
             String token = jwtService.getToken(user);
-            User userFind= userRepository.findByUsername(user.getUsername())
-                    .orElseThrow(()-> new RuntimeException("Usuario no encontrado"));
+            // El principal ya es el User cargado por CustomUserDetailsService
+            User userFind = (User) user;
+            if (userFind.getFailedLoginAttempts() > 0) {
+                loginAttemptService.recordSuccess(userFind.getUsername());
+            }
 
             return AuthResponse.builder()
                     .issuedAt(issuedAt)
                     .expiresAt(expiration)
                     .token(token)
+                    .refreshToken(refreshTokenService.issue(userFind))
                     .roles(userFind.getRoles())
                     .username(userFind.getUsername())
                     .build();
 
         } catch (BadCredentialsException e) {
+            loginThrottleService.recordFailure(request.getUsername(), clientIp);
+            loginAttemptService.recordFailure(request.getUsername());
+            throw new ResponseStatusException(
+                    HttpStatus.UNAUTHORIZED,
+                    "Invalid username or password"
+            );
+        } catch (LockedException e) {
+            // Misma respuesta que con credenciales erróneas para no revelar el bloqueo
             throw new ResponseStatusException(
                     HttpStatus.UNAUTHORIZED,
                     "Invalid username or password"
@@ -90,20 +124,7 @@ public class AuthService {
     }
 
     public AuthResponse register(RegisterRequest request) {
-
-        Role userRole = roleRepository.findByName("ROLE_USER")
-                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-
-        User user= User.builder()
-                .username(request.getUsername())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .roles(Collections.singleton(userRole))
-
-                .enabled(true)
-                .build();
-
-        userRepository.save(user);
+        User user = registerAndSaveUser(request);
         Date issuedAt = new Date();
         Date expiration = new Date(System.currentTimeMillis() + jwtExpirationMs);
         String token = jwtService.getToken(user);
@@ -120,13 +141,7 @@ public class AuthService {
             throw new IllegalArgumentException("RegisterRequest cannot be null");
         }
 
-        Role roleDefault = null;
-        try {
-            roleDefault = roleRepository.findByName("ROLE_USER")
-                    .orElseThrow(() -> new RoleNotFoundException("ROLE_USER not found"));
-        } catch (RoleNotFoundException e) {
-            throw new RuntimeException(e);
-        }
+        Role roleDefault = roleCache.getDefaultRole();
 
         return User.builder()
                 .username(userRequest.getUsername())
@@ -138,9 +153,15 @@ public class AuthService {
                 .build();
     }
 
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        return AvailabilityResponse.builder()
+                .usernameAvailable(username == null ? null : !userAvailabilityService.isUsernameTaken(username))
+                .emailAvailable(email == null ? null : !userAvailabilityService.isEmailTaken(email))
+                .build();
+    }
+
     public AuthResponse createUser(RegisterRequest request) {
         Objects.requireNonNull(request, "RegisterRequest cannot be null");
-        validateUserDoesNotExist(request.getUsername(), request.getEmail());
         try {
             User savedUser = registerAndSaveUser(request);
             return buildAuthResponse(savedUser);
@@ -151,7 +172,7 @@ public class AuthService {
         } catch (DataAccessException e) {
             logger.error("Database error during user registration for: {}", request.getUsername(), e);
             throw new ServiceException("Registration failed: database error", e);
-        } catch (ServiceException e) {
+        } catch (ServiceException | PasswordHashingUnavailableException e) {
             throw e;
         } catch (Exception e) {
             logger.error("Unexpected error during user registration", e);
@@ -159,28 +180,82 @@ public class AuthService {
         }
     }
 
-    private void validateUserDoesNotExist(String username, String email) {
-        if (userRepository.existsByUsername(username)) {
-            throw new UserAlreadyExistsException("Username already exists: " + username);
+    /**
+     * Un único INSERT: los duplicados los detectan las restricciones únicas de users
+     * en lugar de consultar antes, lo que además evita la carrera entre dos altas iguales.
+     */
+    private User registerAndSaveUser(RegisterRequest request) {
+        User user = registerUser(request);
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(request, e);
+        }
+        userAvailabilityService.recordRegistered(saved.getUsername(), saved.getEmail());
+        return saved;
+    }
+
+    private UserAlreadyExistsException duplicateUser(RegisterRequest request, DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName().toLowerCase(Locale.ROOT)
+                : String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+
+        if (constraint.contains(User.UK_USERNAME)) {
+            return new UserAlreadyExistsException("Username already exists: " + request.getUsername());
         }
+        if (constraint.contains(User.UK_EMAIL)) {
+            return new UserAlreadyExistsException("Email already exists: " + request.getEmail());
+        }
+        return new UserAlreadyExistsException("Username or email already exists");
+    }
 
-        if (userRepository.existsByEmail(email)) {
-            throw new UserAlreadyExistsException("Email already exists: " + email);
+    /**
+     * Canjea un refresh token por un access token nuevo. El refresh token usado queda
+     * invalidado y se devuelve su sustituto.
+     */
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        return buildAuthResponse(rotation.user(), rotation.refreshToken());
+    }
+
+    /**
+     * Revoca el access token presentado y, si se envía, la familia de su refresh token.
+     */
+    public void logout(String token, LogoutRequest request) {
+        Claims claims;
+        try {
+            claims = jwtService.validateToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Token inválido");
+        }
+        revocationService.revokeToken(claims);
+        if (request != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
         }
     }
 
-    private User registerAndSaveUser(RegisterRequest request) {
-        User user = registerUser(request);
-        return userRepository.save(user);
+    /**
+     * Invalida todas las sesiones de un usuario: access tokens emitidos hasta ahora y refresh tokens.
+     */
+    public void revokeUserSessions(Long userId) {
+        revocationService.revokeUser(userId);
+        refreshTokenService.revokeAllForUser(userId);
     }
 
     private AuthResponse buildAuthResponse(User user) {
+        return buildAuthResponse(user, refreshTokenService.issue(user));
+    }
+
+    private AuthResponse buildAuthResponse(User user, String refreshToken) {
         Date issuedAt = new Date();
         Date expiration = new Date(System.currentTimeMillis() + jwtExpirationMs);
         String token = jwtService.getToken(user);
 
         return AuthResponse.builder()
                 .token(token)
+                .refreshToken(refreshToken)
                 .issuedAt(issuedAt)
                 .expiresAt(expiration)
                 .username(user.getUsername())
@@ -188,16 +263,50 @@ public class AuthService {
                 .build();
     }
 
+    public List<TokenVerdict> validateTokens(List<String> tokens) {
+        List<TokenVerdict> verdicts = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            verdicts.add(verifyToken(token));
+        }
+        return verdicts;
+    }
+
+    private TokenVerdict verifyToken(String token) {
+        try {
+            Claims claims = jwtService.getAllClaims(token);
+            if (revocationService.isRevoked(claims)) {
+                return TokenVerdict.builder().valid(false).error("Token revocado").build();
+            }
+            return TokenVerdict.builder()
+                    .valid(true)
+                    .subject(claims.getSubject())
+                    .expiresAt(claims.getExpiration())
+                    .build();
+        } catch (ExpiredJwtException e) {
+            return TokenVerdict.builder().valid(false).error("Token expirado").build();
+        } catch (JwtException e) {
+            return TokenVerdict.builder().valid(false).error("Token inválido").build();
+        } catch (IllegalArgumentException e) {
+            return TokenVerdict.builder().valid(false).error("Token vacío o mal formado").build();
+        }
+    }
+
     public void validateToken(String token) {
+        Claims claims;
         try {
-            jwtService.validateToken(token); 
+            claims = jwtService.validateToken(token);
         } catch (ExpiredJwtException e) {
             throw new BadCredentialsException("Token expirado");
         } catch (MalformedJwtException e) {
             throw new BadCredentialsException("Token inválido");
+        } catch (JwtException e) {
+            throw new BadCredentialsException("Token inválido");
         } catch (IllegalArgumentException e) {
             throw new BadCredentialsException("Token vacío o mal formado");
         }
+        if (revocationService.isRevoked(claims)) {
+            throw new BadCredentialsException("Token revocado");
+        }
     }
 
 }
@@ -2,24 +2,83 @@ package com.levelup.auth.service;
 
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.levelup.auth.model.User;
 import com.levelup.auth.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final Cache<String, User> userCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${auth.cache.users.max-size:10000}") long maxSize,
+                                    @Value("${auth.cache.users.ttl:10m}") Duration ttl,
+                                    MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions y cache.size con cache=userDetails
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "userDetails");
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
+        // Los usuarios inexistentes no se cachean (Caffeine descarta los null)
+        User user = userCache.get(username, key -> userRepository.findByUsername(key).orElse(null));
+        if (user == null) {
+            throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+        }
+        return user;
+    }
+
+    /**
+     * Lo invoca DaoAuthenticationProvider tras un login correcto cuando el hash guardado
+     * usa un coste distinto del configurado. El listener de User invalida la caché.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User appUser = userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + user.getUsername()));
+        appUser.setPassword(newPassword);
+        return userRepository.save(appUser);
+    }
+
+    /**
+     * Invalida el usuario en caché. Si hay una transacción en curso se invalida otra vez
+     * tras el commit, para que una lectura concurrente no vuelva a cachear la fila antigua.
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        userCache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userCache.invalidate(username);
+                }
+            });
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.levelup.auth.service;
+
+import com.levelup.auth.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Persiste failedLoginAttempts y el bloqueo de cuentas fuera del hilo de la petición.
+ * Las actualizaciones son masivas (no pasan por el listener de User), por eso se
+ * invalida la caché de usuarios explícitamente.
+ */
+@Service
+public class LoginAttemptService {
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptService.class);
+
+    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+
+    @Value("${auth.login.max-failed-attempts:10}")
+    private int maxFailedAttempts;
+    @Value("${auth.login.lock-duration:30m}")
+    private Duration lockDuration;
+
+    public LoginAttemptService(UserRepository userRepository, CustomUserDetailsService userDetailsService) {
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Async
+    @Transactional
+    public void recordFailure(String username) {
+        if (userRepository.incrementFailedLoginAttempts(username) == 0) {
+            return;
+        }
+        if (userRepository.lockIfAttemptsReached(username, maxFailedAttempts, Instant.now()) > 0) {
+            logger.warn("Cuenta {} bloqueada tras {} intentos fallidos", username, maxFailedAttempts);
+        }
+        userDetailsService.evict(username);
+    }
+
+    @Async
+    @Transactional
+    public void recordSuccess(String username) {
+        if (userRepository.resetFailedLoginAttempts(username) > 0) {
+            userDetailsService.evict(username);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login.unlock-interval-ms:60000}")
+    @Transactional
+    public void unlockExpired() {
+        Instant cutoff = Instant.now().minus(lockDuration);
+        List<String> usernames = userRepository.findUsernamesLockedBefore(cutoff);
+        if (usernames.isEmpty()) {
+            return;
+        }
+        userRepository.unlockLockedBefore(cutoff);
+        usernames.forEach(userDetailsService::evict);
+        logger.info("Cuentas desbloqueadas: {}", usernames.size());
+    }
+}
@@ -0,0 +1,74 @@
+package com.levelup.auth.service;
+
+import com.levelup.auth.service.exception.LoginThrottledException;
+import com.levelup.auth.util.SlidingWindowCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limita los intentos fallidos de login por usuario y por IP antes de llegar al
+ * AuthenticationManager, de modo que un ataque de fuerza bruta no consume BCrypt
+ * ni consultas a la base de datos.
+ */
+@Service
+public class LoginThrottleService {
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottleService.class);
+
+    private final SlidingWindowCounter userFailures;
+    private final SlidingWindowCounter ipFailures;
+    private final int maxUserFailures;
+    private final int maxIpFailures;
+    private final Counter throttledByUser;
+    private final Counter throttledByIp;
+
+    public LoginThrottleService(@Value("${auth.login.throttle.window:5m}") Duration window,
+                                @Value("${auth.login.throttle.max-user-failures:5}") int maxUserFailures,
+                                @Value("${auth.login.throttle.max-ip-failures:20}") int maxIpFailures,
+                                @Value("${auth.login.throttle.stripes:4096}") int stripes,
+                                MeterRegistry meterRegistry) {
+        this.userFailures = new SlidingWindowCounter(stripes, window);
+        this.ipFailures = new SlidingWindowCounter(stripes, window);
+        this.maxUserFailures = maxUserFailures;
+        this.maxIpFailures = maxIpFailures;
+        this.throttledByUser = meterRegistry.counter("auth.login.throttled", "key", "username");
+        this.throttledByIp = meterRegistry.counter("auth.login.throttled", "key", "ip");
+    }
+
+    public void checkAllowed(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (userFailures.estimate(userKey(username), now) >= maxUserFailures) {
+            throttledByUser.increment();
+            logger.warn("Login bloqueado temporalmente para el usuario {}", username);
+            throw new LoginThrottledException("Demasiados intentos fallidos, inténtalo más tarde", retryAfterSeconds());
+        }
+        if (clientIp != null && ipFailures.estimate(clientIp, now) >= maxIpFailures) {
+            throttledByIp.increment();
+            logger.warn("Login bloqueado temporalmente para la IP {}", clientIp);
+            throw new LoginThrottledException("Demasiados intentos fallidos, inténtalo más tarde", retryAfterSeconds());
+        }
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        userFailures.increment(userKey(username), now);
+        if (clientIp != null) {
+            ipFailures.increment(clientIp, now);
+        }
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, userFailures.getWindowMillis() / 1000);
+    }
+
+    // MySQL compara usernames sin distinguir mayúsculas: se normaliza para no poder esquivar el límite
+    private static String userKey(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+}
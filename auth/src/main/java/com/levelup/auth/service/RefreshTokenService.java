@@ -0,0 +1,130 @@
+package com.levelup.auth.service;
+
+import com.levelup.auth.model.RefreshToken;
+import com.levelup.auth.model.User;
+import com.levelup.auth.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos y rotativos. Cada uso devuelve un token nuevo de la misma familia
+ * y marca el anterior como usado; si un token ya usado se presenta otra vez se asume que
+ * ha sido robado y se revoca la familia completa.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${auth.app.jwtRefresh}")
+    private long jwtRefreshMs;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consume el refresh token y devuelve el usuario, ya cargado, junto con el token que lo sustituye.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new BadCredentialsException("Refresh token vacío");
+        }
+
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Refresh token inválido"));
+
+        if (current.getUsedAt() != null || current.isRevoked()) {
+            logger.warn("Reutilización de refresh token detectada, revocando familia {}", current.getFamilyId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new BadCredentialsException("Refresh token inválido");
+        }
+        if (current.getExpiresAt().isBefore(Instant.now())) {
+            throw new BadCredentialsException("Refresh token expirado");
+        }
+
+        User user = current.getUser();
+        // Una cuenta deshabilitada o bloqueada (también por LoginAttemptService) pierde la sesión
+        if (!user.isEnabled() || !user.isAccountNonLocked()) {
+            logger.warn("Refresco rechazado para el usuario {} deshabilitado o bloqueado, revocando familia {}",
+                    user.getId(), current.getFamilyId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new BadCredentialsException("Refresh token inválido");
+        }
+
+        current.setUsedAt(Instant.now());
+        String replacement = issue(user, current.getFamilyId());
+        return new Rotation(user, replacement);
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.app.refreshPurgeIntervalMs:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            logger.info("Refresh tokens expirados eliminados: {}", deleted);
+        }
+    }
+
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(Instant.now().plusMillis(jwtRefreshMs))
+                .build());
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.levelup.auth.service;
+
+import com.levelup.auth.config.jwt.JwtUtils;
+import com.levelup.auth.config.jwt.TokenRevocationChecker;
+import com.levelup.auth.dto.RevocationEntry;
+import com.levelup.auth.dto.RevocationSnapshotResponse;
+import com.levelup.auth.model.RevokedToken;
+import com.levelup.auth.repository.RevokedTokenRepository;
+import com.levelup.security.BloomFilter;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Lista de tokens revocados antes de su expiración (logout o revocación administrativa).
+ * <p>
+ * La comprobación local es exacta y se hace en memoria. Para los demás servicios se publica
+ * un filtro de Bloom con los jti revocados hasta {@code snapshotVersion} más la lista exacta
+ * de lo revocado después y de las revocaciones por usuario, que son pocas. Los clientes
+ * piden solo el delta con {@code since} y descargan el filtro cuando se reconstruye.
+ */
+@Service
+public class RevocationService implements TokenRevocationChecker {
+    private static final Logger logger = LoggerFactory.getLogger(RevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${auth.app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+    @Value("${auth.revocation.bloom-fpp:0.01}")
+    private double bloomFalsePositiveRate;
+    @Value("${auth.revocation.gap-wait:2s}")
+    private Duration gapWait;
+
+    // jti -> expiración del token
+    private final Map<String, Instant> revokedJtis = new ConcurrentHashMap<>();
+    // userId -> última revocación de todos sus tokens
+    private final Map<Long, RevokedToken> revokedUsers = new ConcurrentHashMap<>();
+    // Revocaciones de jti posteriores al último snapshot, por id
+    private final NavigableMap<Long, RevokedToken> pendingJtis = new ConcurrentSkipListMap<>();
+
+    // Todas las filas con id <= lastSeenId están aplicadas; solo avanza en sync()
+    private volatile long lastSeenId;
+    private volatile Snapshot snapshot;
+
+    public RevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        sync();
+        buildSnapshot();
+    }
+
+    @Override
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && revokedJtis.containsKey(jti)) {
+            return true;
+        }
+        Number userId = claims.get(JwtUtils.USER_ID_CLAIM, Number.class);
+        Date issuedAt = claims.getIssuedAt();
+        if (userId == null || issuedAt == null) {
+            return false;
+        }
+        RevokedToken userRevocation = revokedUsers.get(userId.longValue());
+        // iat tiene precisión de segundos: un token del mismo segundo se considera revocado
+        return userRevocation != null && !issuedAt.toInstant().isAfter(userRevocation.getRevokedAt());
+    }
+
+    @Transactional
+    public void revokeToken(Claims claims) {
+        if (claims.getId() == null) {
+            // Tokens emitidos antes de incluir jti: solo se pueden revocar por usuario
+            Number userId = claims.get(JwtUtils.USER_ID_CLAIM, Number.class);
+            if (userId != null) {
+                revokeUser(userId.longValue());
+            }
+            return;
+        }
+        Number userId = claims.get(JwtUtils.USER_ID_CLAIM, Number.class);
+        applyAfterCommit(revokedTokenRepository.save(RevokedToken.builder()
+                .jti(claims.getId())
+                .userId(userId != null ? userId.longValue() : null)
+                .revokedAt(Instant.now())
+                .expiresAt(claims.getExpiration().toInstant())
+                .build()));
+    }
+
+    @Transactional
+    public void revokeUser(Long userId) {
+        Instant now = Instant.now();
+        applyAfterCommit(revokedTokenRepository.save(RevokedToken.builder()
+                .userId(userId)
+                .revokedAt(now)
+                .expiresAt(now.plusMillis(jwtExpirationMs))
+                .build()));
+        logger.info("Tokens del usuario {} revocados", userId);
+    }
+
+    /**
+     * Devuelve lo necesario para que un cliente que conoce la versión {@code since} se ponga al día.
+     */
+    public synchronized RevocationSnapshotResponse snapshot(long since) {
+        Snapshot current = snapshot;
+        long version = lastSeenId;
+        List<RevocationEntry> entries = new ArrayList<>();
+
+        if (since >= current.version() && since <= version) {
+            pendingJtis.tailMap(since, false).values().forEach(r -> entries.add(toEntry(r)));
+            revokedUsers.values().stream()
+                    .filter(r -> r.getId() > since)
+                    .forEach(r -> entries.add(toEntry(r)));
+            return RevocationSnapshotResponse.builder()
+                    .snapshotVersion(current.version())
+                    .version(version)
+                    .entries(entries)
+                    .build();
+        }
+
+        pendingJtis.tailMap(current.version(), false).values().forEach(r -> entries.add(toEntry(r)));
+        revokedUsers.values().forEach(r -> entries.add(toEntry(r)));
+        return RevocationSnapshotResponse.builder()
+                .snapshotVersion(current.version())
+                .version(version)
+                .bloomBits(current.bits())
+                .bloomSize(current.numBits())
+                .bloomHashes(current.numHashes())
+                .entries(entries)
+                .build();
+    }
+
+    /**
+     * Recoge las revocaciones hechas por esta y otras instancias de auth.
+     * <p>
+     * Los ids se asignan al insertar pero las transacciones pueden confirmarse en otro orden:
+     * ante un hueco se espera {@code auth.revocation.gap-wait} antes de saltarlo, por si la
+     * transacción que lo ocupa todavía no ha hecho commit. Si se saltara sin esperar, ni esta
+     * instancia ni los clientes que piden {@code since=version} verían nunca esa revocación.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        advance(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(lastSeenId), Instant.now());
+    }
+
+    /**
+     * Pasa las revocaciones pendientes al filtro de Bloom y descarta las expiradas.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval-ms:600000}",
+            initialDelayString = "${auth.revocation.rebuild-interval-ms:600000}")
+    @Transactional
+    public void rebuildSnapshot() {
+        int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            logger.info("Revocaciones expiradas eliminadas: {}", deleted);
+        }
+        buildSnapshot();
+    }
+
+    private synchronized void buildSnapshot() {
+        Instant now = Instant.now();
+        revokedJtis.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        revokedUsers.values().removeIf(r -> r.getExpiresAt().isBefore(now));
+
+        BloomFilter filter = BloomFilter.create(revokedJtis.size(), bloomFalsePositiveRate);
+        revokedJtis.keySet().forEach(filter::put);
+
+        long version = lastSeenId;
+        snapshot = new Snapshot(version, filter.toBase64(), filter.getNumBits(), filter.getNumHashes());
+        pendingJtis.headMap(version, true).clear();
+    }
+
+    private synchronized void advance(List<RevokedToken> rows, Instant now) {
+        Instant gapDeadline = now.minus(gapWait);
+        long expected = lastSeenId + 1;
+        for (RevokedToken revoked : rows) {
+            if (revoked.getId() != expected && revoked.getRevokedAt().isAfter(gapDeadline)) {
+                break;
+            }
+            if (revoked.getExpiresAt().isAfter(now)) {
+                apply(revoked);
+            }
+            lastSeenId = revoked.getId();
+            expected = revoked.getId() + 1;
+        }
+    }
+
+    // La revocación propia se aplica en memoria al confirmarse, sin esperar al siguiente sync;
+    // si la transacción se deshace no queda rastro de ella
+    private void applyAfterCommit(RevokedToken revoked) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(revoked);
+                }
+            });
+        } else {
+            apply(revoked);
+        }
+    }
+
+    private synchronized void apply(RevokedToken revoked) {
+        if (revoked.getJti() != null) {
+            revokedJtis.put(revoked.getJti(), revoked.getExpiresAt());
+            pendingJtis.put(revoked.getId(), revoked);
+        } else if (revoked.getUserId() != null) {
+            revokedUsers.merge(revoked.getUserId(), revoked,
+                    (current, candidate) -> candidate.getRevokedAt().isAfter(current.getRevokedAt()) ? candidate : current);
+        }
+    }
+
+    private static RevocationEntry toEntry(RevokedToken revoked) {
+        return RevocationEntry.builder()
+                .id(revoked.getId())
+                .jti(revoked.getJti())
+                .userId(revoked.getJti() == null ? revoked.getUserId() : null)
+                .revokedAt(revoked.getRevokedAt())
+                .expiresAt(revoked.getExpiresAt())
+                .build();
+    }
+
+    private record Snapshot(long version, String bits, int numBits, int numHashes) {
+    }
+}
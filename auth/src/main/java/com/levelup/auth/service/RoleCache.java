@@ -0,0 +1,42 @@
+package com.levelup.auth.service;
+
+import com.levelup.auth.model.Role;
+import com.levelup.auth.repository.RoleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Roles en memoria. Los crea RoleSeeder al arrancar y no cambian en ejecución, así que
+ * registrar un usuario no necesita consultar la tabla roles.
+ */
+@Service
+public class RoleCache {
+
+    public static final String DEFAULT_ROLE = "ROLE_USER";
+
+    private final RoleRepository roleRepository;
+    private final Map<String, Role> roles = new ConcurrentHashMap<>();
+
+    public RoleCache(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    // ApplicationReadyEvent llega después de los CommandLineRunner, incluido RoleSeeder
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        roleRepository.findAll().forEach(role -> roles.put(role.getName(), role));
+    }
+
+    public Role getDefaultRole() {
+        return get(DEFAULT_ROLE);
+    }
+
+    public Role get(String name) {
+        return roles.computeIfAbsent(name, key -> roleRepository.findByName(key)
+                .orElseThrow(() -> new IllegalStateException("Rol no encontrado: " + key)));
+    }
+}
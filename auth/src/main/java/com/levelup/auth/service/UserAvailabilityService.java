@@ -0,0 +1,139 @@
+package com.levelup.auth.service;
+
+import com.levelup.auth.repository.UserRepository;
+import com.levelup.security.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Comprobación de disponibilidad de username y email para el formulario de registro.
+ * <p>
+ * Mantiene un filtro de Bloom por campo: si el filtro dice que no existe, la respuesta es
+ * definitiva y no se consulta la base de datos; si dice que puede existir se confirma con
+ * la consulta indexada. Los filtros se construyen recorriendo users en streaming y se
+ * actualizan con cada alta hecha en esta instancia; la reconstrucción periódica recoge
+ * las altas de otras instancias. El INSERT sigue siendo la comprobación definitiva.
+ */
+@Service
+public class UserAvailabilityService {
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityService.class);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter filterAnswers;
+    private final Counter databaseAnswers;
+
+    @Value("${auth.availability.bloom-fpp:0.01}")
+    private double falsePositiveRate;
+    @Value("${auth.availability.min-capacity:100000}")
+    private long minCapacity;
+
+    private volatile Filters current;
+    // Filtros en construcción: las altas durante el recorrido se añaden también aquí
+    private volatile Filters building;
+
+    public UserAvailabilityService(UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                                   MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.filterAnswers = meterRegistry.counter("auth.availability.checks", "answered_by", "filter");
+        this.databaseAnswers = meterRegistry.counter("auth.availability.checks", "answered_by", "database");
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.availability.rebuild-interval-ms:21600000}",
+            initialDelayString = "${auth.availability.rebuild-interval-ms:21600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        // Holgura para las altas hasta la siguiente reconstrucción
+        long capacity = Math.max(minCapacity, (count == null ? 0 : count) * 2);
+        Filters next = new Filters(BloomFilter.create(capacity, falsePositiveRate),
+                BloomFilter.create(capacity, falsePositiveRate));
+        building = next;
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT username, email FROM users",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Con MySQL Connector/J, Integer.MIN_VALUE hace que las filas lleguen en streaming
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }, (ResultSet rs) -> {
+                next.usernames().put(normalize(rs.getString(1)));
+                next.emails().put(normalize(rs.getString(2)));
+            });
+            current = next;
+            logger.info("Filtros de disponibilidad construidos: {} usuarios en {} ms",
+                    count, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("No se pudieron construir los filtros de disponibilidad: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    public boolean isUsernameTaken(String username) {
+        Filters filters = current;
+        if (filters != null && !filters.usernames().mightContain(normalize(username))) {
+            filterAnswers.increment();
+            return false;
+        }
+        databaseAnswers.increment();
+        return userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailTaken(String email) {
+        Filters filters = current;
+        if (filters != null && !filters.emails().mightContain(normalize(email))) {
+            filterAnswers.increment();
+            return false;
+        }
+        databaseAnswers.increment();
+        return userRepository.existsByEmail(email);
+    }
+
+    public void recordRegistered(String username, String email) {
+        String normalizedUsername = normalize(username);
+        String normalizedEmail = normalize(email);
+        for (Filters filters : new Filters[]{current, building}) {
+            if (filters != null) {
+                filters.usernames().put(normalizedUsername);
+                filters.emails().put(normalizedEmail);
+            }
+        }
+    }
+
+    // Misma equivalencia que la collation de MySQL: sin mayúsculas, acentos ni espacios finales
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value.stripTrailing(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+}
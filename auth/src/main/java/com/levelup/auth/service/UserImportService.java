@@ -0,0 +1,151 @@
+package com.levelup.auth.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.levelup.auth.dto.UserImportRecord;
+import com.levelup.auth.dto.UserImportResponse;
+import com.levelup.auth.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Alta masiva de usuarios a partir de un array JSON leído en streaming: nunca se carga el
+ * fichero completo en memoria. Cada lote se inserta con JDBC batch en su propia transacción
+ * y los duplicados se ignoran, por lo que reenviar el mismo fichero es seguro.
+ * <p>
+ * Un cuerpo mal formado o truncado se rechaza con IllegalArgumentException o
+ * JsonProcessingException (400), aunque los lotes anteriores ya se hayan confirmado:
+ * basta con reenviarlo corregido. Los elementos que no son objetos cuentan como inválidos.
+ * <p>
+ * Solo se aceptan contraseñas ya hasheadas con BCrypt; si el coste no coincide con el
+ * configurado se actualiza en el primer login (ver CustomUserDetailsService#updatePassword).
+ */
+@Service
+public class UserImportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private static final String INSERT_USER = "INSERT IGNORE INTO users "
+            + "(username, email, password, enabled, locked, failed_login_attempts) VALUES (?, ?, ?, true, false, 0)";
+
+    // Los usuarios que acaba de insertar el lote son los únicos que aún no tienen ningún rol
+    private static final String INSERT_DEFAULT_ROLE = "INSERT INTO user_roles (user_id, role_id) "
+            + "SELECT u.id, ? FROM users u WHERE u.username IN (%s) "
+            + "AND NOT EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final RoleCache roleCache;
+    private final UserAvailabilityService userAvailabilityService;
+
+    @Value("${auth.import.batch-size:1000}")
+    private int batchSize;
+
+    public UserImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper, RoleCache roleCache,
+                             UserAvailabilityService userAvailabilityService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.roleCache = roleCache;
+        this.userAvailabilityService = userAvailabilityService;
+    }
+
+    public UserImportResponse importUsers(InputStream body) throws IOException {
+        long roleId = roleCache.getDefaultRole().getId();
+        long received = 0;
+        long inserted = 0;
+        long invalid = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Se esperaba un array JSON de usuarios");
+            }
+
+            List<UserImportRecord> batch = new ArrayList<>(batchSize);
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IllegalArgumentException("El array JSON de usuarios no está cerrado");
+                }
+                received++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    invalid++;
+                    continue;
+                }
+                UserImportRecord record = objectMapper.readValue(parser, UserImportRecord.class);
+                if (!isValid(record)) {
+                    invalid++;
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    inserted += insertBatch(batch, roleId);
+                    batch.clear();
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Contenido inesperado tras el array JSON de usuarios");
+            }
+            if (!batch.isEmpty()) {
+                inserted += insertBatch(batch, roleId);
+            }
+        }
+
+        logger.info("Importación de usuarios: {} recibidos, {} insertados, {} inválidos", received, inserted, invalid);
+        return UserImportResponse.builder()
+                .received(received)
+                .inserted(inserted)
+                .skipped(received - inserted - invalid)
+                .invalid(invalid)
+                .build();
+    }
+
+    private int insertBatch(List<UserImportRecord> batch, long roleId) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, batch, batch.size(), (ps, record) -> {
+                ps.setString(1, record.getUsername());
+                ps.setString(2, record.getEmail());
+                ps.setString(3, record.getPasswordHash());
+            });
+
+            Object[] args = new Object[batch.size() + 1];
+            args[0] = roleId;
+            for (int i = 0; i < batch.size(); i++) {
+                args[i + 1] = batch.get(i).getUsername();
+            }
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            // Cada usuario nuevo recibe exactamente un rol: las filas insertadas son los usuarios creados
+            return jdbcTemplate.update(INSERT_DEFAULT_ROLE.formatted(placeholders), args);
+        });
+        // Los omitidos por duplicados ya existían: añadirlos al filtro no cambia nada
+        batch.forEach(record -> userAvailabilityService.recordRegistered(record.getUsername(), record.getEmail()));
+        return inserted == null ? 0 : inserted;
+    }
+
+    private static boolean isValid(UserImportRecord record) {
+        return StringUtils.hasText(record.getUsername())
+                && record.getUsername().length() <= User.USERNAME_MAX_LENGTH
+                && StringUtils.hasText(record.getEmail())
+                && record.getEmail().length() <= User.EMAIL_MAX_LENGTH
+                && record.getEmail().indexOf('@') > 0
+                && record.getPasswordHash() != null
+                && BCRYPT_HASH.matcher(record.getPasswordHash()).matches();
+    }
+}
@@ -0,0 +1,92 @@
+package com.levelup.auth.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador aproximado por clave en una ventana deslizante, sin locks ni memoria por clave.
+ * <p>
+ * Cada clave se reparte en dos filas de contadores (estilo count-min) y se toma el mínimo,
+ * así que una colisión solo puede sobreestimar. Cada celda guarda en un único long el id
+ * de la ventana actual y los recuentos de la ventana actual y la anterior (16 bits cada uno,
+ * saturados), y se actualiza con CAS. La estimación pondera la ventana anterior por la parte
+ * que aún solapa con la ventana deslizante.
+ */
+public class SlidingWindowCounter {
+
+    private static final int ROWS = 2;
+    private static final int[] SEEDS = {0x9747b28c, 0x85ebca6b};
+    private static final long COUNT_MASK = 0xFFFFL;
+
+    private final AtomicLongArray[] rows = new AtomicLongArray[ROWS];
+    private final int indexMask;
+    private final long windowMillis;
+
+    public SlidingWindowCounter(int stripes, Duration window) {
+        int size = Integer.highestOneBit(Math.max(16, stripes - 1)) << 1;
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = new AtomicLongArray(size);
+        }
+        this.indexMask = size - 1;
+        this.windowMillis = window.toMillis();
+    }
+
+    public int estimate(String key, long nowMillis) {
+        long window = windowId(nowMillis);
+        double overlap = 1.0 - (double) (nowMillis % windowMillis) / windowMillis;
+        int hash = key.hashCode();
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < ROWS; i++) {
+            long state = roll(rows[i].get(index(hash, i)), window);
+            int estimate = (int) (((state >>> 16) & COUNT_MASK) * overlap) + (int) (state & COUNT_MASK);
+            min = Math.min(min, estimate);
+        }
+        return min;
+    }
+
+    public void increment(String key, long nowMillis) {
+        long window = windowId(nowMillis);
+        int hash = key.hashCode();
+        for (int i = 0; i < ROWS; i++) {
+            AtomicLongArray row = rows[i];
+            int index = index(hash, i);
+            long current;
+            long next;
+            do {
+                current = row.get(index);
+                next = roll(current, window);
+                if ((next & COUNT_MASK) < COUNT_MASK) {
+                    next++;
+                }
+            } while (!row.compareAndSet(index, current, next));
+        }
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    private long windowId(long nowMillis) {
+        return (nowMillis / windowMillis) & 0xFFFFFFFFL;
+    }
+
+    // Lleva la celda a la ventana indicada: la actual pasa a ser la anterior si es consecutiva
+    private static long roll(long state, long window) {
+        long stateWindow = state >>> 32;
+        if (stateWindow == window) {
+            return state;
+        }
+        long previous = stateWindow == ((window - 1) & 0xFFFFFFFFL) ? state & COUNT_MASK : 0;
+        return (window << 32) | (previous << 16);
+    }
+
+    private int index(int hash, int row) {
+        int h = hash ^ SEEDS[row];
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & indexMask;
+    }
+}
@@ -0,0 +1,62 @@
+package com.levelup.auth.benchmark;
+
+import com.levelup.auth.controller.AuthLinks;
+import com.levelup.auth.controller.AuthenticationController;
+import com.levelup.auth.dto.TokenValidResponse;
+import com.levelup.auth.dto.TokenValidationRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.EntityModel;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Respuesta de /token/verify con enlaces construidos por petición mediante
+ * {@code linkTo(methodOn(...))} (comportamiento anterior) frente a los enlaces de AuthLinks.
+ * El GCProfiler añade gc.alloc.rate.norm: bytes asignados por operación. Los resultados
+ * dependen de la JVM y la máquina; hay que ejecutarlo antes de dar cifras.
+ * <p>
+ * Se ejecuta igual que {@link JwtUtilsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthLinksBenchmark {
+
+    private TokenValidationRequest request;
+    private TokenValidResponse response;
+
+    @Setup
+    public void setup() {
+        request = new TokenValidationRequest("token");
+        response = TokenValidResponse.builder().message("Token válido").build();
+    }
+
+    @Benchmark
+    public EntityModel<TokenValidResponse> verifyResponseWithLinkBuilder() {
+        return EntityModel.of(response,
+                linkTo(methodOn(AuthenticationController.class).verifyToken(request)).withSelfRel(),
+                linkTo(methodOn(AuthenticationController.class).signIn(null, null)).withRel("sign-in"));
+    }
+
+    @Benchmark
+    public EntityModel<TokenValidResponse> verifyResponseWithConstantLinks() {
+        return EntityModel.of(response, AuthLinks.VERIFY_TOKEN_SELF, AuthLinks.SIGN_IN);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthLinksBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
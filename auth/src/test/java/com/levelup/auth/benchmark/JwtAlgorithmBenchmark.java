@@ -0,0 +1,67 @@
+package com.levelup.auth.benchmark;
+
+import com.levelup.auth.config.jwt.JwtKeyRing;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de firma y verificación para cada algoritmo admitido por JwtKeyRing, con un token
+ * del mismo tamaño que los que emite JwtUtils. La verificación es lo que pagan productos,
+ * carrito y order en cada petición; la firma solo auth en login y refresh.
+ * <p>
+ * Se ejecuta igual que {@link JwtUtilsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    private static final String SECRET = "9ab67789df495410c1798fea3ccb00fb8816221312a10b4e00a874a7e4b46960"
+            + "cd8495067622053e6e6ad36addae12c4308921ad8ba01ab23ce2f5bfc1936691ce66bec658cca86526e52e6f337276e5";
+
+    @Param({JwtKeyRing.HS256, JwtKeyRing.ES256, JwtKeyRing.EDDSA})
+    public String algorithm;
+
+    private JwtKeyRing keyRing;
+    private String token;
+
+    @Setup
+    public void setup() {
+        // Sin clave privada configurada se genera un par efímero del algoritmo indicado
+        keyRing = new JwtKeyRing(algorithm, "bench", SECRET, "", "", "", true);
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return keyRing.sign(Jwts.builder()
+                .claim("uid", 42L)
+                .claim("roles", List.of("ROLE_USER"))
+                .subject("usuario")
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 900_000)));
+    }
+
+    @Benchmark
+    public Object verify() {
+        return keyRing.parse(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAlgorithmBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
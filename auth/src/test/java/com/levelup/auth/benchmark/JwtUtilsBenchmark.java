@@ -0,0 +1,82 @@
+package com.levelup.auth.benchmark;
+
+import com.levelup.auth.config.jwt.JwtKeyRing;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y verificación de tokens: clave y parser reconstruidos en cada llamada
+ * (comportamiento anterior de JwtUtils) frente a JwtKeyRing.
+ * <p>
+ * Ejecutar con {@code mvn test-compile} y luego la clase {@code main} desde el IDE,
+ * o con {@code java -cp target/test-classes:<classpath> com.levelup.auth.benchmark.JwtUtilsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "9ab67789df495410c1798fea3ccb00fb8816221312a10b4e00a874a7e4b46960"
+            + "cd8495067622053e6e6ad36addae12c4308921ad8ba01ab23ce2f5bfc1936691ce66bec658cca86526e52e6f337276e5";
+
+    private JwtKeyRing keyRing;
+    private String token;
+
+    @Setup
+    public void setup() {
+        keyRing = new JwtKeyRing(JwtKeyRing.HS256, "k1", SECRET, "", "", "", true);
+        token = issueWithKeyRing();
+    }
+
+    @Benchmark
+    public String issuePerCallKey() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.builder()
+                .subject("usuario")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 900_000))
+                .signWith(key, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String issueWithKeyRing() {
+        return keyRing.sign(Jwts.builder()
+                .subject("usuario")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 900_000)));
+    }
+
+    @Benchmark
+    public Object verifyPerCallParser() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Object verifyWithKeyRing() {
+        return keyRing.parse(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
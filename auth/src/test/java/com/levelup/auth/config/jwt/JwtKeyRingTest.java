@@ -0,0 +1,70 @@
+package com.levelup.auth.config.jwt;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    @Test
+    void keyIdIsThumbprintOfConfiguredKey() {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+
+        JwtKeyRing first = ring(keyPair, "", false);
+        JwtKeyRing second = ring(keyPair, "", false);
+
+        assertEquals(first.getActiveKeyId(), second.getActiveKeyId());
+        assertEquals(first.getActiveKeyId(), first.getPublicJwks().get(0).get("kid"));
+        String token = first.sign(Jwts.builder().subject("ana"));
+        assertEquals("ana", second.parse(token).getSubject());
+    }
+
+    @Test
+    void differentKeysNeverShareKeyId() {
+        JwtKeyRing first = ring(Jwts.SIG.ES256.keyPair().build(), "", false);
+        JwtKeyRing second = ring(Jwts.SIG.ES256.keyPair().build(), "", false);
+
+        assertNotEquals(first.getActiveKeyId(), second.getActiveKeyId());
+    }
+
+    @Test
+    void missingPrivateKeyFailsOutsideDevProfile() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new JwtKeyRing(JwtKeyRing.ES256, "k1", "", "", "", "", false));
+    }
+
+    @Test
+    void missingPrivateKeyGeneratesEphemeralPairInDevProfile() {
+        JwtKeyRing ring = new JwtKeyRing(JwtKeyRing.ES256, "k1", "", "", "", "", true);
+
+        assertNotEquals("k1", ring.getActiveKeyId());
+        assertEquals(1, ring.getPublicJwks().size());
+    }
+
+    @Test
+    void tokensSignedWithPreviousKeyStillVerify() {
+        KeyPair previousPair = Jwts.SIG.ES256.keyPair().build();
+        JwtKeyRing previous = ring(previousPair, "", false);
+        String token = previous.sign(Jwts.builder().subject("ana"));
+
+        JwtKeyRing current = ring(Jwts.SIG.ES256.keyPair().build(),
+                "antigua=" + encode(previousPair.getPublic().getEncoded()), false);
+
+        assertEquals("ana", current.parse(token).getSubject());
+        assertEquals(2, current.getPublicJwks().size());
+    }
+
+    private static JwtKeyRing ring(KeyPair keyPair, String previousKeys, boolean ephemeralAllowed) {
+        return new JwtKeyRing(JwtKeyRing.ES256, "k1", "",
+                encode(keyPair.getPrivate().getEncoded()), encode(keyPair.getPublic().getEncoded()),
+                previousKeys, ephemeralAllowed);
+    }
+
+    private static String encode(byte[] der) {
+        return Base64.getEncoder().encodeToString(der);
+    }
+}
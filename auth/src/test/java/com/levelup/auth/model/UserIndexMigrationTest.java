@@ -0,0 +1,45 @@
+package com.levelup.auth.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserIndexMigrationTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UserIndexMigration migration = new UserIndexMigration(jdbcTemplate);
+
+    @Test
+    void dropsAutoNamedIndexesOnceNamedOnesExist() {
+        indexes(index(User.UK_USERNAME, "username"), index("UK_r43af9ap4edm43mmtq01oddj6", "username"),
+                index(User.UK_EMAIL, "email"), index("UK_6dotkott2kjsp8vw4d0m25fb7", "email"));
+
+        migration.run();
+
+        verify(jdbcTemplate).execute("ALTER TABLE users DROP INDEX `UK_r43af9ap4edm43mmtq01oddj6`");
+        verify(jdbcTemplate).execute("ALTER TABLE users DROP INDEX `UK_6dotkott2kjsp8vw4d0m25fb7`");
+    }
+
+    @Test
+    void keepsOldIndexWhenNamedOneIsMissing() {
+        indexes(index("UK_r43af9ap4edm43mmtq01oddj6", "username"), index(User.UK_EMAIL, "email"));
+
+        migration.run();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @SafeVarargs
+    private void indexes(Map<String, Object>... rows) {
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(rows));
+    }
+
+    private static Map<String, Object> index(String name, String column) {
+        return Map.of("index_name", name, "column_name", column);
+    }
+}
@@ -0,0 +1,37 @@
+package com.levelup.auth.service;
+
+import com.levelup.auth.service.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleServiceTest {
+
+    private final LoginThrottleService service =
+            new LoginThrottleService(Duration.ofMinutes(5), 3, 5, 1024, new SimpleMeterRegistry());
+
+    @Test
+    void blocksUserAfterMaxFailuresIgnoringCase() {
+        service.recordFailure("Ana", "10.0.0.1");
+        service.recordFailure("ana", "10.0.0.2");
+        assertDoesNotThrow(() -> service.checkAllowed("ana", "10.0.0.3"));
+
+        service.recordFailure("ANA", "10.0.0.4");
+
+        assertThrows(LoginThrottledException.class, () -> service.checkAllowed("ana", "10.0.0.5"));
+        assertDoesNotThrow(() -> service.checkAllowed("luis", "10.0.0.5"));
+    }
+
+    @Test
+    void blocksIpAfterMaxFailuresAcrossUsers() {
+        for (int i = 0; i < 5; i++) {
+            service.recordFailure("usuario-" + i, "10.0.0.9");
+        }
+
+        assertThrows(LoginThrottledException.class, () -> service.checkAllowed("otro", "10.0.0.9"));
+        assertDoesNotThrow(() -> service.checkAllowed("otro", "10.0.0.10"));
+    }
+}
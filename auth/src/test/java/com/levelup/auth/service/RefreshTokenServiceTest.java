@@ -0,0 +1,143 @@
+package com.levelup.auth.service;
+
+import com.levelup.auth.model.RefreshToken;
+import com.levelup.auth.model.User;
+import com.levelup.auth.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private static final String RAW_TOKEN = "refresh-token";
+    private static final String FAMILY = "familia-1";
+
+    private RefreshTokenRepository repository;
+    private RefreshTokenService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshTokenRepository.class);
+        service = new RefreshTokenService(repository);
+        ReflectionTestUtils.setField(service, "jwtRefreshMs", 60_000L);
+
+        user = new User();
+        user.setId(7L);
+        user.setUsername("ana");
+        user.setEnabled(true);
+        user.setLocked(false);
+    }
+
+    @Test
+    void rotateMarksTokenUsedAndIssuesReplacementInSameFamily() {
+        RefreshToken current = stored(null, false);
+
+        RefreshTokenService.Rotation rotation = service.rotate(RAW_TOKEN);
+
+        assertSame(user, rotation.user());
+        assertNotEquals(RAW_TOKEN, rotation.refreshToken());
+        assertNotNull(current.getUsedAt());
+        ArgumentCaptor<RefreshToken> issued = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(issued.capture());
+        assertEquals(FAMILY, issued.getValue().getFamilyId());
+        assertEquals(hash(rotation.refreshToken()), issued.getValue().getTokenHash());
+        verify(repository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void reusingUsedTokenRevokesFamily() {
+        stored(Instant.now().minusSeconds(5), false);
+
+        assertThrows(BadCredentialsException.class, () -> service.rotate(RAW_TOKEN));
+
+        verify(repository).revokeFamily(FAMILY);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void revokedTokenRevokesFamily() {
+        stored(null, true);
+
+        assertThrows(BadCredentialsException.class, () -> service.rotate(RAW_TOKEN));
+
+        verify(repository).revokeFamily(FAMILY);
+    }
+
+    @Test
+    void disabledUserCannotRefreshAndLosesFamily() {
+        user.setEnabled(false);
+        RefreshToken current = stored(null, false);
+
+        assertThrows(BadCredentialsException.class, () -> service.rotate(RAW_TOKEN));
+
+        verify(repository).revokeFamily(FAMILY);
+        verify(repository, never()).save(any());
+        assertNull(current.getUsedAt());
+    }
+
+    @Test
+    void lockedUserCannotRefreshAndLosesFamily() {
+        user.setLocked(true);
+        stored(null, false);
+
+        assertThrows(BadCredentialsException.class, () -> service.rotate(RAW_TOKEN));
+
+        verify(repository).revokeFamily(FAMILY);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void expiredTokenIsRejectedWithoutRevokingFamily() {
+        RefreshToken current = stored(null, false);
+        current.setExpiresAt(Instant.now().minusSeconds(1));
+
+        assertThrows(BadCredentialsException.class, () -> service.rotate(RAW_TOKEN));
+
+        verify(repository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        when(repository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> service.rotate("desconocido"));
+        assertThrows(BadCredentialsException.class, () -> service.rotate(" "));
+    }
+
+    private RefreshToken stored(Instant usedAt, boolean revoked) {
+        RefreshToken token = RefreshToken.builder()
+                .id(1L)
+                .tokenHash(hash(RAW_TOKEN))
+                .familyId(FAMILY)
+                .user(user)
+                .expiresAt(Instant.now().plusSeconds(60))
+                .usedAt(usedAt)
+                .revoked(revoked)
+                .build();
+        when(repository.findByTokenHash(hash(RAW_TOKEN))).thenReturn(Optional.of(token));
+        return token;
+    }
+
+    private static String hash(String raw) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(raw.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
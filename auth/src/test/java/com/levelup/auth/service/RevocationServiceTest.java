@@ -0,0 +1,184 @@
+package com.levelup.auth.service;
+
+import com.levelup.auth.config.jwt.JwtUtils;
+import com.levelup.auth.dto.RevocationEntry;
+import com.levelup.auth.dto.RevocationSnapshotResponse;
+import com.levelup.auth.model.RevokedToken;
+import com.levelup.auth.repository.RevokedTokenRepository;
+import com.levelup.security.BloomFilter;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RevocationServiceTest {
+
+    private final List<RevokedToken> rows = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private RevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+        when(repository.findByIdGreaterThanOrderByIdAsc(anyLong())).thenAnswer(invocation -> {
+            long since = invocation.getArgument(0);
+            return rows.stream().filter(r -> r.getId() > since).toList();
+        });
+        when(repository.save(any(RevokedToken.class))).thenAnswer(invocation -> {
+            RevokedToken revoked = invocation.getArgument(0);
+            revoked.setId(ids.incrementAndGet());
+            return revoked;
+        });
+
+        service = new RevocationService(repository);
+        ReflectionTestUtils.setField(service, "jwtExpirationMs", 900_000L);
+        ReflectionTestUtils.setField(service, "bloomFalsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(service, "gapWait", Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void fullSnapshotFoldsKnownJtisIntoBloomFilter() {
+        committed(1, "jti-1", Instant.now().minusSeconds(60));
+        committed(2, "jti-2", Instant.now().minusSeconds(60));
+        service.init();
+
+        RevocationSnapshotResponse response = service.snapshot(-1);
+
+        assertEquals(2, response.getVersion());
+        assertEquals(2, response.getSnapshotVersion());
+        assertNotNull(response.getBloomBits());
+        assertTrue(response.getEntries().isEmpty());
+        BloomFilter filter = BloomFilter.fromBase64(response.getBloomBits(),
+                response.getBloomSize(), response.getBloomHashes());
+        assertTrue(filter.mightContain("jti-1"));
+        assertTrue(filter.mightContain("jti-2"));
+    }
+
+    @Test
+    void deltaContainsOnlyRevocationsAfterSince() {
+        service.init();
+        committed(1, "jti-1", Instant.now().minusSeconds(60));
+        committed(2, "jti-2", Instant.now().minusSeconds(60));
+        service.sync();
+
+        RevocationSnapshotResponse response = service.snapshot(1);
+
+        assertNull(response.getBloomBits());
+        assertEquals(2, response.getVersion());
+        assertEquals(List.of("jti-2"), response.getEntries().stream().map(RevocationEntry::getJti).toList());
+    }
+
+    @Test
+    void recentGapHoldsBackLaterRowsUntilItIsFilled() {
+        service.init();
+        committed(1, "jti-1", Instant.now().minusSeconds(60));
+        // La fila 2 tiene id asignado pero su transacción aún no ha hecho commit
+        committed(3, "jti-3", Instant.now());
+        service.sync();
+
+        assertEquals(1, service.snapshot(0).getVersion());
+        assertFalse(service.isRevoked(claims("jti-3")));
+
+        committed(2, "jti-2", Instant.now());
+        service.sync();
+
+        assertEquals(3, service.snapshot(0).getVersion());
+        assertTrue(service.isRevoked(claims("jti-2")));
+        assertTrue(service.isRevoked(claims("jti-3")));
+    }
+
+    @Test
+    void oldGapIsSkipped() {
+        service.init();
+        committed(1, "jti-1", Instant.now().minusSeconds(60));
+        // El id 2 se perdió en un rollback hace tiempo
+        committed(3, "jti-3", Instant.now().minusSeconds(10));
+        service.sync();
+
+        assertEquals(3, service.snapshot(0).getVersion());
+        assertTrue(service.isRevoked(claims("jti-3")));
+    }
+
+    @Test
+    void userRevocationCoversTokensIssuedUpToIt() {
+        service.init();
+        Instant revokedAt = Instant.now().minusSeconds(30);
+        rows.add(RevokedToken.builder()
+                .id(1L).userId(7L).revokedAt(revokedAt).expiresAt(Instant.now().plusSeconds(600))
+                .build());
+        service.sync();
+
+        Claims before = Jwts.claims().id("a").add(JwtUtils.USER_ID_CLAIM, 7L)
+                .issuedAt(Date.from(revokedAt.minusSeconds(60))).build();
+        Claims after = Jwts.claims().id("b").add(JwtUtils.USER_ID_CLAIM, 7L)
+                .issuedAt(Date.from(revokedAt.plusSeconds(10))).build();
+        assertTrue(service.isRevoked(before));
+        assertFalse(service.isRevoked(after));
+    }
+
+    @Test
+    void ownRevocationIsAppliedOnlyAfterCommit() {
+        service.init();
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.revokeToken(claims("jti-propio"));
+
+        assertFalse(service.isRevoked(claims("jti-propio")));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(service.isRevoked(claims("jti-propio")));
+        // La versión publicada solo avanza con sync(), que recorre los ids en orden
+        assertEquals(0, service.snapshot(0).getVersion());
+    }
+
+    @Test
+    void rolledBackRevocationLeavesNoTrace() {
+        service.init();
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.revokeToken(claims("jti-deshecho"));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertFalse(service.isRevoked(claims("jti-deshecho")));
+    }
+
+    private void committed(long id, String jti, Instant revokedAt) {
+        rows.add(RevokedToken.builder()
+                .id(id)
+                .jti(jti)
+                .revokedAt(revokedAt)
+                .expiresAt(Instant.now().plusSeconds(600))
+                .build());
+        rows.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+    }
+
+    private static Claims claims(String jti) {
+        return Jwts.claims()
+                .id(jti)
+                .expiration(Date.from(Instant.now().plusSeconds(600)))
+                .build();
+    }
+}
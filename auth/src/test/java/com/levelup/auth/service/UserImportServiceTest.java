@@ -0,0 +1,100 @@
+package com.levelup.auth.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.levelup.auth.dto.UserImportResponse;
+import com.levelup.auth.model.Role;
+import com.levelup.auth.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceTest {
+
+    private static final String HASH = "$2a$10$" + "a".repeat(53);
+
+    private JdbcTemplate jdbcTemplate;
+    private UserImportService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        RoleCache roleCache = mock(RoleCache.class);
+        when(roleCache.getDefaultRole()).thenReturn(new Role(1L, RoleCache.DEFAULT_ROLE));
+
+        service = new UserImportService(jdbcTemplate, transactionTemplate, new ObjectMapper(),
+                roleCache, mock(UserAvailabilityService.class));
+        ReflectionTestUtils.setField(service, "batchSize", 1000);
+    }
+
+    @Test
+    void nonObjectElementsCountAsInvalid() throws IOException {
+        UserImportResponse response = service.importUsers(body(
+                "[" + user("ana", "ana@levelup.cl") + ", \"texto\", [1, 2], 7, " + user("luis", "luis@levelup.cl") + "]"));
+
+        assertEquals(5, response.getReceived());
+        assertEquals(3, response.getInvalid());
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void emailLongerThanColumnIsInvalid() throws IOException {
+        String email = "a".repeat(User.EMAIL_MAX_LENGTH) + "@levelup.cl";
+
+        UserImportResponse response = service.importUsers(body("[" + user("ana", email) + "]"));
+
+        assertEquals(1, response.getReceived());
+        assertEquals(1, response.getInvalid());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void unclosedArrayIsRejected() {
+        InputStream body = body("[" + user("ana", "ana@levelup.cl"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.importUsers(body));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void truncatedObjectIsRejected() {
+        InputStream body = body("[{\"username\": \"ana\", \"email\": \"ana@");
+
+        assertThrows(JsonProcessingException.class, () -> service.importUsers(body));
+    }
+
+    @Test
+    void contentAfterArrayIsRejected() {
+        InputStream body = body("[] " + user("ana", "ana@levelup.cl"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.importUsers(body));
+    }
+
+    private static String user(String username, String email) {
+        return "{\"username\": \"%s\", \"email\": \"%s\", \"passwordHash\": \"%s\"}".formatted(username, email, HASH);
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
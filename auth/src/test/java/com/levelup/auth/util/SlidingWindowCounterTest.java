@@ -0,0 +1,69 @@
+package com.levelup.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final long WINDOW = 60_000;
+    // Inicio de una ventana, para que el solape con la anterior sea exacto
+    private static final long START = WINDOW * 1_000;
+
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(1024, Duration.ofMillis(WINDOW));
+
+    @Test
+    void unknownKeyEstimatesZero() {
+        assertEquals(0, counter.estimate("ana", START));
+    }
+
+    @Test
+    void countsIncrementsWithinWindow() {
+        for (int i = 0; i < 5; i++) {
+            counter.increment("ana", START + i);
+        }
+
+        assertEquals(5, counter.estimate("ana", START + 10));
+        assertEquals(0, counter.estimate("luis", START + 10));
+    }
+
+    @Test
+    void previousWindowIsWeightedByOverlap() {
+        for (int i = 0; i < 10; i++) {
+            counter.increment("ana", START);
+        }
+
+        // Al empezar la ventana siguiente la anterior cuenta entera, a mitad cuenta la mitad
+        assertEquals(10, counter.estimate("ana", START + WINDOW));
+        assertEquals(5, counter.estimate("ana", START + WINDOW + WINDOW / 2));
+
+        counter.increment("ana", START + WINDOW + WINDOW / 2);
+        assertEquals(6, counter.estimate("ana", START + WINDOW + WINDOW / 2));
+    }
+
+    @Test
+    void countsOlderThanPreviousWindowAreDropped() {
+        for (int i = 0; i < 10; i++) {
+            counter.increment("ana", START);
+        }
+
+        assertEquals(0, counter.estimate("ana", START + 2 * WINDOW));
+
+        counter.increment("ana", START + 2 * WINDOW);
+        assertEquals(1, counter.estimate("ana", START + 2 * WINDOW));
+    }
+
+    @Test
+    void collisionsOnlyOverestimate() {
+        SlidingWindowCounter small = new SlidingWindowCounter(16, Duration.ofMillis(WINDOW));
+        for (int i = 0; i < 200; i++) {
+            small.increment("usuario-" + i, START);
+        }
+        small.increment("ana", START);
+        small.increment("ana", START);
+
+        assertTrue(small.estimate("ana", START) >= 2);
+    }
+}
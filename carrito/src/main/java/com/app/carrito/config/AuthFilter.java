@@ -1,24 +1,46 @@
 package com.app.carrito.config;
 
+import com.levelup.security.AuthServiceUnavailableException;
+import com.levelup.security.JwtVerifier;
+import com.levelup.security.RevocationListClient;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class AuthFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthFilter.class);
+
+    private final JwtVerifier jwtVerifier;
     private final AuthClientService authClientService;
+    private final RevocationListClient revocationListClient;
+
+    @Value("${auth.jwt.remote-fallback:false}")
+    private boolean remoteFallback;
 
-    public AuthFilter(AuthClientService authClientService) {
+    public AuthFilter(JwtVerifier jwtVerifier, AuthClientService authClientService,
+                      RevocationListClient revocationListClient) {
+        this.jwtVerifier = jwtVerifier;
         this.authClientService = authClientService;
+        this.revocationListClient = revocationListClient;
     }
 
     @Override
@@ -28,10 +50,17 @@ public class AuthFilter extends OncePerRequestFilter {
 
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.replace("Bearer ", "");
-            if (authClientService.validateToken(token)) {
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken("usuario", null, new ArrayList<>());
+            String token = authHeader.substring(7);
+            UsernamePasswordAuthenticationToken authentication;
+            try {
+                authentication = autenticar(token);
+            } catch (AuthServiceUnavailableException e) {
+                // Sin veredicto de auth no se puede aceptar ni rechazar el token como inválido
+                logger.warn("No se pudo validar el token con el servicio de autenticación: {}", e.getMessage());
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return;
+            }
+            if (authentication != null) {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
             } else {
@@ -42,5 +71,54 @@ public class AuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
 
+    private UsernamePasswordAuthenticationToken autenticar(String token) {
+        try {
+            Claims claims = jwtVerifier.verify(token);
+            RevocationListClient.Estado estado = revocationListClient.comprobar(claims);
+            if (estado == RevocationListClient.Estado.REVOCADO) {
+                logger.warn("Token revocado: {}", claims.getId());
+                return null;
+            }
+            // El filtro de Bloom admite falsos positivos: auth tiene la respuesta exacta,
+            // pedida sin caché porque la revocación puede ser posterior a lo cacheado
+            if (estado == RevocationListClient.Estado.POSIBLEMENTE_REVOCADO
+                    && !authClientService.confirmToken(token)) {
+                logger.warn("Token revocado según el servicio de autenticación");
+                return null;
+            }
+            return new UsernamePasswordAuthenticationToken(claims.getSubject(), null, obtenerRoles(claims));
+
+        } catch (ExpiredJwtException | MalformedJwtException e) {
+            logger.warn("Token rechazado: {}", e.getMessage());
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            // Firma inválida o clave no disponible (JWKS inaccesible): solo se consulta al
+            // servicio de autenticación si está habilitado explícitamente
+            if (!remoteFallback) {
+                logger.warn("Token rechazado: {}", e.getMessage());
+                return null;
+            }
+            return autenticarRemoto(token);
+        }
+    }
+
+    // auth emite los roles del usuario en el claim "roles"
+    private List<SimpleGrantedAuthority> obtenerRoles(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return new ArrayList<>();
+        }
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+    }
+
+    private UsernamePasswordAuthenticationToken autenticarRemoto(String token) {
+        if (authClientService.validateToken(token)) {
+            return new UsernamePasswordAuthenticationToken("usuario", null, new ArrayList<>());
+        }
+        logger.warn("Token rechazado por el servicio de autenticación");
+        return null;
+    }
+}
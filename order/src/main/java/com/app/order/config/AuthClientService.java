@@ -1,45 +1,79 @@
 package com.app.order.config;
 
-import com.app.order.config.security.TokenResponse;
+import com.levelup.security.AuthServiceUnavailableException;
+import com.levelup.security.TokenValidationCache;
+import com.levelup.security.TokenValidationCache.Veredicto;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Instant;
 
 @Service
 public class AuthClientService {
     private final RestTemplate restTemplate;
+    private final TokenValidationCache tokenValidationCache;
     @Value("${auth.url.auht-micro}")
     private String AUTH_SERVICE_URL;
 
-    public AuthClientService(RestTemplate restTemplate) {
+    public AuthClientService(RestTemplate restTemplate, TokenValidationCache tokenValidationCache) {
         this.restTemplate = restTemplate;
+        this.tokenValidationCache = tokenValidationCache;
     }
 
+    /**
+     * Validación remota cacheada de un token que no se ha podido verificar localmente.
+     *
+     * @throws AuthServiceUnavailableException si auth no responde o devuelve un error propio
+     */
     public boolean validateToken(String token) {
-        try {
-            Map<String, String> requestBody = new HashMap<>();
-            requestBody.put("token", token);
+        return tokenValidationCache.get(token, this::validarRemoto);
+    }
+
+    /**
+     * Confirma con auth un positivo del filtro de revocación. No pasa por la caché: una
+     * validación positiva guardada antes de la revocación seguiría aceptando el token.
+     */
+    public boolean confirmToken(String token) {
+        tokenValidationCache.invalidate(token);
+        return validarRemoto(token).valido();
+    }
 
-            ResponseEntity<TokenResponse> response = restTemplate.postForEntity(
+    private Veredicto validarRemoto(String token) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(token);
+            // /token/check responde 204 sin cuerpo: no hay JSON que serializar ni parsear
+            ResponseEntity<Void> response = restTemplate.exchange(
                     AUTH_SERVICE_URL,
-                    requestBody,
-                    TokenResponse.class
+                    HttpMethod.POST,
+                    new HttpEntity<>(headers),
+                    Void.class
             );
 
-            return response.getStatusCode().is2xxSuccessful();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                return Veredicto.invalido();
+            }
+            // "exp" del token en la cabecera Expires: la caché no guarda el veredicto más allá
+            long expires = response.getHeaders().getExpires();
+            return Veredicto.valido(expires > 0 ? Instant.ofEpochMilli(expires) : null);
 
         } catch (HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
-                throw new BadCredentialsException("Token inválido");
+            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED || e.getStatusCode() == HttpStatus.FORBIDDEN) {
+                // Resultado negativo: se cachea durante auth.cache.negative-ttl
+                return Veredicto.invalido();
             }
-            throw new RuntimeException("Error de comunicación con el servicio de autenticación");
+            throw new AuthServiceUnavailableException("Respuesta inesperada del servicio de autenticación", e);
+        } catch (RestClientException e) {
+            // Caída, timeout o 5xx: no es un veredicto sobre el token y no se cachea
+            throw new AuthServiceUnavailableException("Error de comunicación con el servicio de autenticación", e);
         }
     }
 }
@@ -31,9 +31,17 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/v1/authentication/token/verify").permitAll()
                         .requestMatchers("/api/no-auth/**", "/swagger-ui.html",
                                 "/api/v1/productos/list",
+                                "/api/v1/productos/list/page",
                                 "/api/v1/productos/estado/activos",
+                                "/api/v1/productos/estado/activos/page",
+                                "/api/v1/productos/buscar",
+                                "/api/v1/productos/filtrar",
+                                "/api/v1/productos/facetas",
                                 "/api/v1/productos/buscar/nombre",
+                                "/api/v1/productos/buscar/nombre/page",
                                 "/api/v1/productos/buscar/precio",
+                                "/api/v1/productos/buscar/precio/page",
+                                "/api/v1/productos/buscar/precio/mayor",
                                 "/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .anyRequest().authenticated()
                 )
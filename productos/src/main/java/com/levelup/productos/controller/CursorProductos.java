@@ -0,0 +1,72 @@
+package com.levelup.productos.controller;
+
+import com.levelup.productos.exception.CursorInvalidoException;
+import com.levelup.productos.dto.ProductosDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición de continuación de un listado paginado por clave. Se entrega al cliente como
+ * texto opaco (base64url de {@code orden:precio:id}); el orden va dentro para rechazar un
+ * cursor usado con un listado distinto.
+ */
+final class CursorProductos {
+
+    static final String ORDEN_ID = "id";
+    static final String ORDEN_PRECIO = "precio";
+
+    // Antes del primer elemento: los listados por precio empiezan por el más barato
+    private static final double PRECIO_INICIAL = -Double.MAX_VALUE;
+
+    private final String orden;
+    private final double precio;
+    private final long id;
+
+    private CursorProductos(String orden, double precio, long id) {
+        this.orden = orden;
+        this.precio = precio;
+        this.id = id;
+    }
+
+    static CursorProductos inicio(String orden) {
+        return new CursorProductos(orden, PRECIO_INICIAL, 0L);
+    }
+
+    static CursorProductos despuesDe(String orden, ProductosDTO producto) {
+        double precio = producto.getPrecioProducto() == null ? PRECIO_INICIAL : producto.getPrecioProducto();
+        return new CursorProductos(orden, precio, producto.getId());
+    }
+
+    /**
+     * @param valor cursor recibido o {@code null} para la primera página
+     */
+    static CursorProductos leer(String valor, String orden) {
+        if (valor == null || valor.isBlank()) {
+            return inicio(orden);
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(valor), StandardCharsets.UTF_8);
+            String[] partes = texto.split(":", 3);
+            if (partes.length != 3 || !partes[0].equals(orden)) {
+                throw new CursorInvalidoException("Cursor no válido para este listado");
+            }
+            return new CursorProductos(orden, Double.parseDouble(partes[1]), Long.parseLong(partes[2]));
+        } catch (IllegalArgumentException e) {
+            throw new CursorInvalidoException("Cursor mal formado");
+        }
+    }
+
+    String codificar() {
+        String texto = orden + ":" + precio + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    double getPrecio() {
+        return precio;
+    }
+
+    long getId() {
+        return id;
+    }
+}
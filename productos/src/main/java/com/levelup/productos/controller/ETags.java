@@ -0,0 +1,102 @@
+package com.levelup.productos.controller;
+
+import com.levelup.productos.dto.ProductosDTO;
+import com.levelup.productos.model.Productos;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * ETags fuertes calculados a partir del id y la versión de los productos, de modo que una
+ * petición condicional se responde sin pasar por el mapper ni serializar la respuesta.
+ */
+final class ETags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETags() {
+    }
+
+    static String deProducto(Productos producto) {
+        return "\"" + producto.getId() + "-" + version(producto) + "\"";
+    }
+
+    /**
+     * Cambia si cambia cualquier producto de la lista, su orden o su número. {@link #deDTOs}
+     * da el mismo valor para la misma lista proyectada a DTO.
+     */
+    static String deProductos(Collection<Productos> productos) {
+        long hash = FNV_OFFSET;
+        for (Productos producto : productos) {
+            hash = mezclar(mezclar(hash, producto.getId()), version(producto));
+        }
+        return "\"l" + productos.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    static String deDTOs(Collection<ProductosDTO> productos) {
+        long hash = FNV_OFFSET;
+        for (ProductosDTO producto : productos) {
+            hash = mezclar(mezclar(hash, producto.getId()),
+                    producto.getVersion() == null ? 0 : producto.getVersion());
+        }
+        return "\"l" + productos.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Para una respuesta por lotes: los ids pedidos que no existen también forman parte del ETag.
+     */
+    static String deLote(Collection<Long> idsPedidos, Map<Long, Productos> encontrados) {
+        long hash = FNV_OFFSET;
+        for (Long id : idsPedidos) {
+            Productos producto = encontrados.get(id);
+            hash = mezclar(mezclar(hash, id), producto == null ? -1 : version(producto));
+        }
+        return "\"b" + idsPedidos.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * If-None-Match: comparación débil, acepta {@code *} y listas separadas por comas.
+     */
+    static boolean noModificado(String ifNoneMatch, String etag) {
+        return ifNoneMatch != null && coincide(ifNoneMatch, etag, true);
+    }
+
+    /**
+     * If-Match: comparación fuerte, un ETag débil nunca coincide.
+     */
+    static boolean cumpleIfMatch(String ifMatch, String etag) {
+        return ifMatch == null || coincide(ifMatch, etag, false);
+    }
+
+    private static boolean coincide(String cabecera, String etag, boolean debil) {
+        for (String candidato : cabecera.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*")) {
+                return true;
+            }
+            if (valor.startsWith("W/")) {
+                if (!debil) {
+                    continue;
+                }
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long version(Productos producto) {
+        return producto.getVersion() == null ? 0 : producto.getVersion();
+    }
+
+    private static long mezclar(long hash, long valor) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (valor >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
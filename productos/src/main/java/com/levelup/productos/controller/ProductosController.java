@@ -1,7 +1,18 @@
 package com.levelup.productos.controller;
 
+import com.levelup.productos.dto.ActualizacionMasivaPreciosDTO;
+import com.levelup.productos.dto.FacetasDTO;
+import com.levelup.productos.dto.PaginaProductosDTO;
+import com.levelup.productos.dto.ProductosBatchDTO;
 import com.levelup.productos.dto.ProductosDTO;
+import com.levelup.productos.dto.ResultadoBusquedaDTO;
+import com.levelup.productos.dto.TrabajoMasivoDTO;
 import com.levelup.productos.mapper.ProductosMapper;
+import com.levelup.productos.model.Productos;
+import com.levelup.productos.service.CambiosProductosService;
+import com.levelup.productos.service.FacetasProductosService;
+import com.levelup.productos.service.PreciosMasivosService;
+import com.levelup.productos.service.ProductosExportService;
 import com.levelup.productos.service.ProductosService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,11 +23,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/v1/productos")
@@ -25,8 +47,23 @@ import java.util.List;
 @Tag(name = "Gestión de Productos", description = "API para la administración completa del catálogo de productos")
 public class ProductosController {
 
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     private final ProductosService productosService;
     private final ProductosMapper productosMapper;
+    private final ProductosExportService productosExportService;
+    private final FacetasProductosService facetasProductosService;
+    private final PreciosMasivosService preciosMasivosService;
+    private final CambiosProductosService cambiosProductosService;
+
+    @Value("${productos.batch.max-size:100}")
+    private int batchMaxSize;
+
+    @Value("${productos.paginacion.tamanio-defecto:50}")
+    private int tamanioPorDefecto;
+
+    @Value("${productos.paginacion.tamanio-maximo:200}")
+    private int tamanioMaximo;
 
     @Operation(summary = "Obtener todos los productos",
             description = "Retorna una lista completa de todos los productos disponibles en el sistema")
@@ -34,45 +71,198 @@ public class ProductosController {
             @ApiResponse(responseCode = "200", description = "Lista de productos obtenida exitosamente",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ProductosDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @GetMapping("/list")
-    public ResponseEntity<List<ProductosDTO>> obtenerTodosLosProductos() {
-        var productos = productosService.findAll();
-        return ResponseEntity.ok(productosMapper.toDTOList(productos));
+    public ResponseEntity<List<ProductosDTO>> obtenerTodosLosProductos(
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        var productos = productosService.findAllDTO();
+        return listadoDTOConTope(productos, ifNoneMatch);
+    }
+
+    @Operation(summary = "Obtener productos paginados",
+            description = "Retorna los productos por bloques ordenados por ID o por precio. "
+                    + "Para la siguiente página se envía el siguienteCursor de la respuesta anterior")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cursor, orden o tamaño inválidos")
+    })
+    @GetMapping("/list/page")
+    public ResponseEntity<PaginaProductosDTO> obtenerProductosPaginados(
+            @Parameter(description = "Orden del listado: id o precio", example = "id")
+            @RequestParam(defaultValue = CursorProductos.ORDEN_ID) String orden,
+            @Parameter(description = "Cursor de continuación devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Productos por página", example = "50")
+            @RequestParam(required = false) Integer tamanio) {
+        return paginar(false, orden, cursor, tamanio);
+    }
+
+    @Operation(summary = "Exportar catálogo en NDJSON",
+            description = "Escribe un producto por línea según se lee de la base de datos, sin cargar el "
+                    + "catálogo en memoria. Pensado para generadores de feeds e indexadores")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportación en curso",
+                    content = @Content(mediaType = MEDIA_TYPE_NDJSON))
+    })
+    @GetMapping(value = "/export", produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportarProductos(
+            @Parameter(description = "Filtrar por estado; sin valor exporta todos", example = "true")
+            @RequestParam(required = false) Boolean activo,
+            @Parameter(description = "Solo productos creados o modificados desde esta fecha (ISO-8601)",
+                    example = "2025-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime modificadoDesde) {
+        StreamingResponseBody body = out -> productosExportService.exportar(activo, modificadoDesde, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .body(body);
+    }
+
+    @Operation(summary = "Feed de cambios de productos (SSE)",
+            description = "Emite un evento 'producto' por cada alta, modificación o baja. Al reconectar, "
+                    + "el cliente envía Last-Event-ID (o desde) y recibe los cambios que se perdió. "
+                    + "Si esa secuencia ya se purgó se emite 'reinicio' y conviene vaciar la caché local")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suscripción abierta",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))
+    })
+    @GetMapping(value = "/cambios", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirCambios(
+            @Parameter(description = "Última secuencia recibida; sin valor solo llegan cambios nuevos")
+            @RequestParam(required = false) Long desde,
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return cambiosProductosService.suscribir(lastEventId != null ? lastEventId : desde);
     }
 
     @Operation(summary = "Obtener productos activos",
             description = "Retorna una lista de productos que se encuentran en estado activo")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Productos activos obtenidos exitosamente"),
-            @ApiResponse(responseCode = "204", description = "No hay productos activos disponibles")
+            @ApiResponse(responseCode = "204", description = "No hay productos activos disponibles"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado")
     })
     @GetMapping("/estado/activos")
-    public ResponseEntity<List<ProductosDTO>> obtenerProductosActivos() {
+    public ResponseEntity<List<ProductosDTO>> obtenerProductosActivos(
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         var productos = productosService.findAllActivos();
         if (productos.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(productosMapper.toDTOList(productos));
+        return listadoConTope(productos, ifNoneMatch);
+    }
+
+    @Operation(summary = "Obtener productos activos paginados",
+            description = "Igual que /list/page pero solo con productos activos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cursor, orden o tamaño inválidos")
+    })
+    @GetMapping("/estado/activos/page")
+    public ResponseEntity<PaginaProductosDTO> obtenerProductosActivosPaginados(
+            @Parameter(description = "Orden del listado: id o precio", example = "id")
+            @RequestParam(defaultValue = CursorProductos.ORDEN_ID) String orden,
+            @Parameter(description = "Cursor de continuación devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Productos por página", example = "50")
+            @RequestParam(required = false) Integer tamanio) {
+        return paginar(true, orden, cursor, tamanio);
     }
 
     @Operation(summary = "Obtener producto por ID",
             description = "Busca y retorna un producto específico basado en su ID único")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Producto encontrado exitosamente"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado"),
             @ApiResponse(responseCode = "404", description = "Producto no encontrado")
     })
     @GetMapping("/{productoId}")
     public ResponseEntity<ProductosDTO> obtenerProductoPorId(
             @Parameter(description = "ID único del producto", example = "1", required = true)
-            @PathVariable Long productoId) {
+            @PathVariable Long productoId,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         return productosService.findById(productoId)
-                .map(productosMapper::toDTO)
-                .map(ResponseEntity::ok)
+                .map(producto -> {
+                    String etag = ETags.deProducto(producto);
+                    if (ETags.noModificado(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<ProductosDTO>build();
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(productosMapper.toDTO(producto));
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Obtener varios productos por ID",
+            description = "Retorna en una sola llamada los productos activos solicitados, en el mismo orden. "
+                    + "Los IDs inexistentes o inactivos se indican por separado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Productos obtenidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado"),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vacía o mayor que el máximo permitido")
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<ProductosBatchDTO> obtenerProductosPorIds(
+            @Parameter(description = "IDs separados por comas", example = "1,2,3", required = true)
+            @RequestParam List<Long> ids,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return construirLote(ids, ifNoneMatch);
+    }
+
+    @Operation(summary = "Obtener varios productos por ID (POST)",
+            description = "Igual que GET /batch pero con los IDs en el cuerpo, para listas que no caben en la URL")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Productos obtenidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag enviado"),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vacía o mayor que el máximo permitido")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<ProductosBatchDTO> obtenerProductosPorIdsPost(
+            @Parameter(description = "Array de IDs", required = true)
+            @RequestBody List<Long> ids,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return construirLote(ids, ifNoneMatch);
+    }
+
+    private ResponseEntity<ProductosBatchDTO> construirLote(List<Long> ids, String ifNoneMatch) {
+        if (ids == null || ids.isEmpty() || ids.size() > batchMaxSize) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Long> unicos = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Productos> encontrados = productosService.findAllByIds(unicos);
+        String etag = ETags.deLote(unicos, encontrados);
+        if (ETags.noModificado(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        List<ProductosDTO> productos = new ArrayList<>(encontrados.size());
+        List<Long> noEncontrados = new ArrayList<>();
+        List<Long> inactivos = new ArrayList<>();
+        for (Long id : unicos) {
+            Productos producto = encontrados.get(id);
+            if (producto == null) {
+                noEncontrados.add(id);
+            } else if (!Boolean.TRUE.equals(producto.getActivo())) {
+                inactivos.add(id);
+            } else {
+                productos.add(productosMapper.toDTO(producto));
+            }
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(ProductosBatchDTO.builder()
+                .productos(productos)
+                .noEncontrados(noEncontrados)
+                .inactivos(inactivos)
+                .build());
+    }
+
     @Operation(summary = "Crear nuevo producto",
             description = "Registra un nuevo producto en el catálogo del sistema")
     @ApiResponses(value = {
@@ -95,19 +285,26 @@ public class ProductosController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Producto actualizado exitosamente"),
             @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
-            @ApiResponse(responseCode = "400", description = "Datos de actualización inválidos")
+            @ApiResponse(responseCode = "400", description = "Datos de actualización inválidos"),
+            @ApiResponse(responseCode = "412", description = "El producto cambió desde el ETag enviado en If-Match")
     })
     @PutMapping("/{productoId}")
     public ResponseEntity<ProductosDTO> actualizarProductoCompleto(
             @Parameter(description = "ID único del producto a actualizar", example = "1", required = true)
             @PathVariable Long productoId,
+            @Parameter(description = "ETag obtenido al leer el producto; si no coincide no se actualiza")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Datos completos del producto actualizado", required = true)
             @Valid @RequestBody ProductosDTO productoDTO) {
         return productosService.findById(productoId)
                 .map(producto -> {
+                    if (!ETags.cumpleIfMatch(ifMatch, ETags.deProducto(producto))) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<ProductosDTO>build();
+                    }
+                    // La copia conserva la versión leída: si otra petición escribe antes, save() falla
                     productosMapper.updateEntityFromDTO(productoDTO, producto);
                     var updated = productosService.save(producto);
-                    return ResponseEntity.ok(productosMapper.toDTO(updated));
+                    return ResponseEntity.ok().eTag(ETags.deProducto(updated)).body(productosMapper.toDTO(updated));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -144,6 +341,118 @@ public class ProductosController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Buscar productos por texto",
+            description = "Busca en nombre, categorías y descripción, sin distinguir acentos ni mayúsculas. "
+                    + "Todas las palabras deben aparecer; la última puede ser un prefijo. "
+                    + "Los resultados se ordenan por relevancia")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Búsqueda completada exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Página o tamaño inválidos")
+    })
+    @GetMapping("/buscar")
+    public ResponseEntity<ResultadoBusquedaDTO> buscarProductos(
+            @Parameter(description = "Texto a buscar", example = "camara digital", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Excluir productos inactivos", example = "true")
+            @RequestParam(defaultValue = "true") boolean soloActivos,
+            @Parameter(description = "Número de página, empezando en 0", example = "0")
+            @RequestParam(defaultValue = "0") int pagina,
+            @Parameter(description = "Productos por página", example = "50")
+            @RequestParam(required = false) Integer tamanio) {
+        Integer limite = tamanioPagina(tamanio);
+        if (limite == null || pagina < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Long> ids = productosService.buscarIds(q, soloActivos);
+        int desde = (int) Math.min((long) pagina * limite, ids.size());
+        int hasta = Math.min(desde + limite, ids.size());
+        var productos = productosService.findAllByIds(ids.subList(desde, hasta)).values().stream()
+                .map(productosMapper::toDTO)
+                .toList();
+
+        return ResponseEntity.ok(ResultadoBusquedaDTO.builder()
+                .productos(productos)
+                .total(ids.size())
+                .pagina(pagina)
+                .tamanio(productos.size())
+                .build());
+    }
+
+    @Operation(summary = "Filtrar productos por categoría y tramo de precio",
+            description = "Retorna los productos que tienen todas las categorías indicadas, ordenados por ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Filtrado completado exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Tramo, página o tamaño inválidos"),
+            @ApiResponse(responseCode = "503", description = "El índice de categorías aún se está construyendo")
+    })
+    @GetMapping("/filtrar")
+    public ResponseEntity<ResultadoBusquedaDTO> filtrarProductos(
+            @Parameter(description = "Categorías (clave o nombre); se puede repetir", example = "camaras")
+            @RequestParam(required = false) List<String> categoria,
+            @Parameter(description = "Índice del tramo de precio devuelto por /facetas", example = "0")
+            @RequestParam(required = false) Integer tramo,
+            @Parameter(description = "Excluir productos inactivos", example = "true")
+            @RequestParam(defaultValue = "true") boolean soloActivos,
+            @Parameter(description = "Número de página, empezando en 0", example = "0")
+            @RequestParam(defaultValue = "0") int pagina,
+            @Parameter(description = "Productos por página", example = "50")
+            @RequestParam(required = false) Integer tamanio) {
+        Integer limite = tamanioPagina(tamanio);
+        if (limite == null || pagina < 0 || !tramoValido(tramo)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!facetasProductosService.isListo()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        var ids = facetasProductosService.filtrar(null, categoria, tramo, soloActivos);
+        long desde = Math.min((long) pagina * limite, ids.getLongCardinality());
+        long hasta = Math.min(desde + limite, ids.getLongCardinality());
+        List<Long> idsPagina = new ArrayList<>();
+        for (long i = desde; i < hasta; i++) {
+            idsPagina.add((long) ids.select((int) i));
+        }
+        var productos = productosService.findAllByIds(idsPagina).values().stream()
+                .map(productosMapper::toDTO)
+                .toList();
+
+        return ResponseEntity.ok(ResultadoBusquedaDTO.builder()
+                .productos(productos)
+                .total((int) ids.getLongCardinality())
+                .pagina(pagina)
+                .tamanio(productos.size())
+                .build());
+    }
+
+    @Operation(summary = "Conteo de productos por categoría y tramo de precio",
+            description = "Para una búsqueda de texto y/o filtros, retorna cuántos productos hay en cada "
+                    + "categoría y en cada tramo de precio")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Facetas calculadas exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Tramo inválido"),
+            @ApiResponse(responseCode = "503", description = "El índice de categorías aún se está construyendo")
+    })
+    @GetMapping("/facetas")
+    public ResponseEntity<FacetasDTO> obtenerFacetas(
+            @Parameter(description = "Texto a buscar; sin valor cuenta sobre todo el catálogo", example = "camara")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Categorías (clave o nombre); se puede repetir", example = "camaras")
+            @RequestParam(required = false) List<String> categoria,
+            @Parameter(description = "Índice del tramo de precio", example = "0")
+            @RequestParam(required = false) Integer tramo,
+            @Parameter(description = "Excluir productos inactivos", example = "true")
+            @RequestParam(defaultValue = "true") boolean soloActivos) {
+        if (!tramoValido(tramo)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!facetasProductosService.isListo()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        List<Long> candidatos = q == null || q.isBlank() ? null : productosService.buscarIds(q, soloActivos);
+        return ResponseEntity.ok(facetasProductosService.facetas(candidatos, categoria, tramo, soloActivos));
+    }
+
     @Operation(summary = "Buscar productos por nombre",
             description = "Busca productos cuyo nombre contenga el texto especificado")
     @ApiResponses(value = {
@@ -154,11 +463,34 @@ public class ProductosController {
     public ResponseEntity<List<ProductosDTO>> buscarProductosPorNombre(
             @Parameter(description = "Texto a buscar en los nombres de productos", example = "laptop", required = true)
             @RequestParam String nombre) {
-        var productos = productosService.findByNombreContaining(nombre);
+        var productos = productosService.findByNombreContainingDTO(nombre);
         if (productos.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(productosMapper.toDTOList(productos));
+        return listadoDTOConTope(productos, null);
+    }
+
+    @Operation(summary = "Buscar productos por nombre paginados",
+            description = "Busca productos cuyo nombre contenga el texto, por bloques ordenados por ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño inválidos")
+    })
+    @GetMapping("/buscar/nombre/page")
+    public ResponseEntity<PaginaProductosDTO> buscarProductosPorNombrePaginados(
+            @Parameter(description = "Texto a buscar en los nombres de productos", example = "laptop", required = true)
+            @RequestParam String nombre,
+            @Parameter(description = "Cursor de continuación devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Productos por página", example = "50")
+            @RequestParam(required = false) Integer tamanio) {
+        Integer limite = tamanioPagina(tamanio);
+        if (limite == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        var desde = CursorProductos.leer(cursor, CursorProductos.ORDEN_ID);
+        var filas = productosService.findPaginaPorNombre(nombre, desde.getId(), limite + 1);
+        return ResponseEntity.ok(construirPagina(filas, limite, CursorProductos.ORDEN_ID));
     }
 
     @Operation(summary = "Buscar productos por rango de precio",
@@ -183,7 +515,88 @@ public class ProductosController {
         if (productos.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(productosMapper.toDTOList(productos));
+        return listadoConTope(productos);
+    }
+
+    @Operation(summary = "Buscar productos por rango de precio paginados",
+            description = "Busca productos dentro del rango, por bloques ordenados por precio")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Rango, cursor o tamaño inválidos")
+    })
+    @GetMapping("/buscar/precio/page")
+    public ResponseEntity<PaginaProductosDTO> buscarProductosPorRangoPrecioPaginados(
+            @Parameter(description = "Precio mínimo del rango", example = "100.0", required = true)
+            @RequestParam Double precioMinimo,
+            @Parameter(description = "Precio máximo del rango", example = "500.0", required = true)
+            @RequestParam Double precioMaximo,
+            @Parameter(description = "Cursor de continuación devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Productos por página", example = "50")
+            @RequestParam(required = false) Integer tamanio) {
+        Integer limite = tamanioPagina(tamanio);
+        if (limite == null || precioMinimo > precioMaximo) {
+            return ResponseEntity.badRequest().build();
+        }
+        var desde = CursorProductos.leer(cursor, CursorProductos.ORDEN_PRECIO);
+        var filas = productosService.findPaginaPorPrecio(false, precioMinimo, precioMaximo,
+                desde.getPrecio(), desde.getId(), limite + 1);
+        return ResponseEntity.ok(construirPagina(filas, limite, CursorProductos.ORDEN_PRECIO));
+    }
+
+    @Operation(summary = "Buscar productos más caros que un precio",
+            description = "Retorna los productos activos con precio mayor que el indicado, del más barato al más caro")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Búsqueda completada exitosamente"),
+            @ApiResponse(responseCode = "204", description = "No hay productos por encima de ese precio")
+    })
+    @GetMapping("/buscar/precio/mayor")
+    public ResponseEntity<List<ProductosDTO>> buscarProductosMasCaros(
+            @Parameter(description = "Precio de referencia", example = "500.0", required = true)
+            @RequestParam Double precio) {
+        var productos = productosService.findMasCarosQue(precio);
+        if (productos.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return listadoConTope(productos);
+    }
+
+    @Operation(summary = "Actualizar precios de forma masiva",
+            description = "Aplica un nuevo precio o un porcentaje de descuento a los productos seleccionados "
+                    + "por lista de IDs, categoría o rango de precio. Se ejecuta en segundo plano; el progreso "
+                    + "se consulta en la URL de la cabecera Location")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Trabajo aceptado"),
+            @ApiResponse(responseCode = "400", description = "Criterio de selección o valor inválidos")
+    })
+    @PostMapping("/precios/masivo")
+    public ResponseEntity<TrabajoMasivoDTO> actualizarPreciosMasivo(
+            @Parameter(description = "Operación y criterio de selección", required = true)
+            @Valid @RequestBody ActualizacionMasivaPreciosDTO peticion) {
+        TrabajoMasivoDTO trabajo;
+        try {
+            trabajo = preciosMasivosService.iniciar(peticion);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/productos/precios/masivo/" + trabajo.getId()))
+                .body(trabajo);
+    }
+
+    @Operation(summary = "Consultar progreso de una actualización masiva",
+            description = "Retorna el estado y el número de productos procesados del trabajo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado del trabajo"),
+            @ApiResponse(responseCode = "404", description = "Trabajo no encontrado o ya expirado")
+    })
+    @GetMapping("/precios/masivo/{trabajoId}")
+    public ResponseEntity<TrabajoMasivoDTO> consultarPreciosMasivo(
+            @Parameter(description = "ID del trabajo devuelto al iniciarlo", required = true)
+            @PathVariable String trabajoId) {
+        return preciosMasivosService.consultar(trabajoId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @Operation(summary = "Activar producto",
@@ -201,4 +614,77 @@ public class ProductosController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    private ResponseEntity<PaginaProductosDTO> paginar(boolean soloActivos, String orden, String cursor, Integer tamanio) {
+        Integer limite = tamanioPagina(tamanio);
+        if (limite == null
+                || (!CursorProductos.ORDEN_ID.equals(orden) && !CursorProductos.ORDEN_PRECIO.equals(orden))) {
+            return ResponseEntity.badRequest().build();
+        }
+        var desde = CursorProductos.leer(cursor, orden);
+        // Se pide un elemento de más para saber si hay página siguiente
+        var filas = CursorProductos.ORDEN_ID.equals(orden)
+                ? productosService.findPaginaPorId(soloActivos, desde.getId(), limite + 1)
+                : productosService.findPaginaPorPrecio(soloActivos, -Double.MAX_VALUE, Double.MAX_VALUE,
+                        desde.getPrecio(), desde.getId(), limite + 1);
+        return ResponseEntity.ok(construirPagina(filas, limite, orden));
+    }
+
+    private PaginaProductosDTO construirPagina(List<ProductosDTO> filas, int limite, String orden) {
+        boolean haySiguiente = filas.size() > limite;
+        var pagina = haySiguiente ? filas.subList(0, limite) : filas;
+        String siguienteCursor = haySiguiente
+                ? CursorProductos.despuesDe(orden, pagina.get(limite - 1)).codificar()
+                : null;
+        return PaginaProductosDTO.builder()
+                .productos(pagina)
+                .siguienteCursor(siguienteCursor)
+                .tamanio(pagina.size())
+                .build();
+    }
+
+    private boolean tramoValido(Integer tramo) {
+        return tramo == null || (tramo >= 0 && tramo < facetasProductosService.getNumeroTramos());
+    }
+
+    // null si el tamaño pedido no es válido; por encima del máximo se recorta
+    private Integer tamanioPagina(Integer tamanio) {
+        if (tamanio == null) {
+            return tamanioPorDefecto;
+        }
+        if (tamanio < 1) {
+            return null;
+        }
+        return Math.min(tamanio, tamanioMaximo);
+    }
+
+    // Los listados sin paginar se cortan en productos.listado.max-resultados; la cabecera avisa al cliente
+    private ResponseEntity<List<ProductosDTO>> listadoConTope(List<Productos> productos) {
+        return listadoConTope(productos, null);
+    }
+
+    private ResponseEntity<List<ProductosDTO>> listadoConTope(List<Productos> productos, String ifNoneMatch) {
+        String etag = ETags.deProductos(productos);
+        if (ETags.noModificado(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        var respuesta = ResponseEntity.ok().eTag(etag);
+        if (productos.size() >= productosService.getMaxResultados()) {
+            respuesta.header("X-Resultados-Truncados", "true");
+        }
+        return respuesta.body(productosMapper.toDTOList(productos));
+    }
+
+    // Igual que listadoConTope para listados que ya llegan proyectados desde la consulta
+    private ResponseEntity<List<ProductosDTO>> listadoDTOConTope(List<ProductosDTO> productos, String ifNoneMatch) {
+        String etag = ETags.deDTOs(productos);
+        if (ETags.noModificado(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        var respuesta = ResponseEntity.ok().eTag(etag);
+        if (productos.size() >= productosService.getMaxResultados()) {
+            respuesta.header("X-Resultados-Truncados", "true");
+        }
+        return respuesta.body(productos);
+    }
 }
\ No newline at end of file
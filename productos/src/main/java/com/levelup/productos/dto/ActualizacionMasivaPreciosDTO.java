@@ -0,0 +1,43 @@
+package com.levelup.productos.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cambio de precio o descuento sobre muchos productos. Se indica exactamente un criterio de
+ * selección: lista de ids, categoría o rango de precio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActualizacionMasivaPreciosDTO {
+
+    public enum Tipo {
+        // valor es el nuevo precio
+        PRECIO,
+        // valor es el porcentaje de descuento sobre el precio actual, como ProductosService.aplicarDescuento
+        DESCUENTO
+    }
+
+    @NotNull(message = "El tipo de operación es obligatorio")
+    private Tipo tipo;
+
+    @NotNull(message = "El valor es obligatorio")
+    @Positive(message = "El valor debe ser mayor a 0")
+    private Double valor;
+
+    private List<Long> ids;
+
+    private String categoria;
+
+    private Double precioMinimo;
+
+    private Double precioMaximo;
+}
@@ -0,0 +1,18 @@
+package com.levelup.productos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetaDTO {
+
+    // Valor a enviar como filtro: clave de la categoría o índice del tramo de precio
+    private String valor;
+
+    private String nombre;
+
+    private long total;
+}
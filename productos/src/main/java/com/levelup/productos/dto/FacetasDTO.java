@@ -0,0 +1,23 @@
+package com.levelup.productos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetasDTO {
+
+    // Productos que cumplen los filtros
+    private long total;
+
+    // De más a menos productos
+    private List<FacetaDTO> categorias;
+
+    private List<FacetaDTO> tramosPrecio;
+}
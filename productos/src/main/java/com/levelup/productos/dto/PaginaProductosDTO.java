@@ -0,0 +1,22 @@
+package com.levelup.productos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaProductosDTO {
+
+    private List<ProductosDTO> productos;
+
+    // null en la última página
+    private String siguienteCursor;
+
+    private int tamanio;
+}
@@ -0,0 +1,27 @@
+package com.levelup.productos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductoEventoDTO {
+
+    // También va como id del evento SSE: es el valor a enviar en Last-Event-ID al reconectar
+    private Long secuencia;
+
+    private Long productoId;
+
+    // CREADO, ACTUALIZADO o ELIMINADO
+    private String tipo;
+
+    private Long version;
+
+    private LocalDateTime fecha;
+}
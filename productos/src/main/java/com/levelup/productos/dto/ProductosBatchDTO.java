@@ -0,0 +1,22 @@
+package com.levelup.productos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductosBatchDTO {
+
+    // Productos activos en el mismo orden en que se pidieron
+    private List<ProductosDTO> productos;
+
+    private List<Long> noEncontrados;
+
+    private List<Long> inactivos;
+}
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,5 +38,11 @@ public class ProductosDTO {
     private Boolean activo;
 
     @NotBlank(message = "Debe especificar al menos una categoría")
+    @Pattern(regexp = "[^,]{0,100}(,[^,]{0,100})*", message = "Cada categoría puede tener como máximo 100 caracteres")
     private String categorias;
+
+    // Solo de salida: el mapper no los copia a la entidad
+    private LocalDateTime fechaActualizacion;
+
+    private Long version;
 }
\ No newline at end of file
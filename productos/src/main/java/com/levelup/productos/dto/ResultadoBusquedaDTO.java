@@ -0,0 +1,25 @@
+package com.levelup.productos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoBusquedaDTO {
+
+    // Ordenados por relevancia
+    private List<ProductosDTO> productos;
+
+    // Coincidencias totales, no solo las de esta página
+    private int total;
+
+    private int pagina;
+
+    private int tamanio;
+}
@@ -0,0 +1,34 @@
+package com.levelup.productos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrabajoMasivoDTO {
+
+    public enum Estado {
+        PENDIENTE, EN_CURSO, COMPLETADO, FALLIDO
+    }
+
+    private String id;
+
+    private Estado estado;
+
+    // Productos seleccionados; 0 hasta que se resuelve la selección
+    private int total;
+
+    private int procesados;
+
+    private String error;
+
+    private LocalDateTime inicio;
+
+    private LocalDateTime fin;
+}
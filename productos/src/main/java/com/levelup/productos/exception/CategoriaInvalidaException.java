@@ -0,0 +1,7 @@
+package com.levelup.productos.exception;
+
+public class CategoriaInvalidaException extends RuntimeException {
+    public CategoriaInvalidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.levelup.productos.exception;
+
+public class CursorInvalidoException extends RuntimeException {
+    public CursorInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -21,6 +21,8 @@ public class ProductosMapper {
                 .descuentoProducto(producto.getDescuentoProducto())
                 .activo(producto.getActivo())
                 .categorias(producto.getCategorias())
+                .fechaActualizacion(producto.getFechaActualizacion())
+                .version(producto.getVersion())
                 .build();
     }
 
@@ -0,0 +1,32 @@
+package com.levelup.productos.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "categorias", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_categorias_clave", columnNames = "clave")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Categoria {
+    public static final int LONGITUD_MAXIMA = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_categoria")
+    private Long id;
+
+    // Nombre normalizado (minúsculas, sin acentos): "Cámaras" y "camaras" son la misma categoría
+    @Column(nullable = false, length = LONGITUD_MAXIMA)
+    private String clave;
+
+    // Nombre tal como se escribió la primera vez
+    @Column(nullable = false, length = LONGITUD_MAXIMA)
+    private String nombre;
+}
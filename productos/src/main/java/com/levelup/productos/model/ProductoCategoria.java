@@ -0,0 +1,38 @@
+package com.levelup.productos.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Relación producto-categoría. Se mantiene a partir de {@link Productos#getCategorias()},
+ * que sigue siendo el formato de entrada y salida de la API.
+ */
+@Entity
+@Table(name = "productos_categorias", indexes = {
+        @Index(name = "idx_productos_categorias_categoria", columnList = "categoria_id, producto_id")
+})
+@IdClass(ProductoCategoria.Clave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoCategoria {
+    @Id
+    @Column(name = "producto_id")
+    private Long productoId;
+
+    @Id
+    @Column(name = "categoria_id")
+    private Long categoriaId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private Long productoId;
+        private Long categoriaId;
+    }
+}
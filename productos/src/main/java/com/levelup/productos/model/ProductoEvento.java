@@ -0,0 +1,45 @@
+package com.levelup.productos.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio de un producto registrado en la misma transacción que la escritura (outbox).
+ * El id es la secuencia con la que los consumidores reanudan el feed de cambios.
+ */
+@Entity
+@Table(name = "productos_eventos", indexes = {
+        @Index(name = "idx_productos_eventos_fecha", columnList = "fecha")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductoEvento {
+
+    public enum Tipo {
+        CREADO, ACTUALIZADO, ELIMINADO
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Tipo tipo;
+
+    // Versión del producto tras el cambio; null si se eliminó
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
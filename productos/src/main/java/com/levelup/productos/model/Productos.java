@@ -11,11 +11,15 @@ import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", indexes = {
+        @Index(name = "idx_productos_activo_id", columnList = "activo, id_producto"),
+        @Index(name = "idx_productos_precio_id", columnList = "precio_producto, id_producto"),
+        @Index(name = "idx_productos_fecha_actualizacion", columnList = "fecha_actualizacion")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Productos {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,4 +38,18 @@ public class Productos {
 
     @Column(name = "categorias")
     private String categorias;
+
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+
+    // Se incrementa en cada escritura; base de los ETags y del control de concurrencia optimista
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void marcarActualizacion() {
+        fechaActualizacion = LocalDateTime.now();
+    }
 }
@@ -0,0 +1,14 @@
+package com.levelup.productos.repository;
+
+import com.levelup.productos.model.Categoria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
+
+    List<Categoria> findByClaveIn(Collection<String> claves);
+}
@@ -0,0 +1,16 @@
+package com.levelup.productos.repository;
+
+import com.levelup.productos.model.ProductoCategoria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductoCategoriaRepository extends JpaRepository<ProductoCategoria, ProductoCategoria.Clave> {
+
+    @Modifying
+    @Query("DELETE FROM ProductoCategoria pc WHERE pc.productoId = :productoId")
+    void deleteByProductoId(@Param("productoId") Long productoId);
+}
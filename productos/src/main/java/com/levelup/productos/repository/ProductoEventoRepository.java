@@ -0,0 +1,30 @@
+package com.levelup.productos.repository;
+
+import com.levelup.productos.model.ProductoEvento;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductoEventoRepository extends JpaRepository<ProductoEvento, Long> {
+
+    List<ProductoEvento> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM ProductoEvento e")
+    long findUltimaSecuencia();
+
+    @Query("SELECT COALESCE(MIN(e.id), 0) FROM ProductoEvento e")
+    long findPrimeraSecuencia();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProductoEvento e WHERE e.fecha < :fecha")
+    int deleteAnterioresA(@Param("fecha") LocalDateTime fecha);
+}
@@ -1,6 +1,8 @@
 package com.levelup.productos.repository;
 
+import com.levelup.productos.dto.ProductosDTO;
 import com.levelup.productos.model.Productos;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -28,4 +30,48 @@ public interface ProductosRepository extends JpaRepository<Productos, Long> {
     @Query("SELECT p FROM Productos p WHERE p.descuentoProducto > 0 AND p.activo = true")
     List<Productos> findProductosConDescuento();
 
+    // Paginación por clave: siguiente bloque a partir del último id devuelto
+    List<Productos> findByActivoTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    List<Productos> findByNombreProductoContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String nombre, Long id, Limit limit);
+
+    @Query("SELECT p FROM Productos p WHERE (:soloActivos = false OR p.activo = true) " +
+            "AND p.precioProducto BETWEEN :minPrecio AND :maxPrecio " +
+            "AND (p.precioProducto > :precio OR (p.precioProducto = :precio AND p.id > :id)) " +
+            "ORDER BY p.precioProducto ASC, p.id ASC")
+    List<Productos> findPaginaPorPrecio(@Param("soloActivos") boolean soloActivos,
+                                        @Param("minPrecio") Double minPrecio,
+                                        @Param("maxPrecio") Double maxPrecio,
+                                        @Param("precio") Double precio,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
+    // Listados de solo lectura proyectados directamente a DTO: sin entidades gestionadas ni mapper
+    String PROYECCION_DTO = "SELECT new com.levelup.productos.dto.ProductosDTO(p.id, p.nombreProducto, "
+            + "p.descripcionProducto, p.imageProducto, p.precioProducto, p.descuentoProducto, p.activo, "
+            + "p.categorias, p.fechaActualizacion, p.version) FROM Productos p ";
+
+    @Query(PROYECCION_DTO + "WHERE (:soloActivos = false OR p.activo = true) AND p.id > :id ORDER BY p.id ASC")
+    List<ProductosDTO> findDTOPaginaPorId(@Param("soloActivos") boolean soloActivos,
+                                          @Param("id") Long id,
+                                          Limit limit);
+
+    // Como en los métodos derivados Containing, % y _ del texto se buscan literalmente: escape()
+    // los marca con el carácter de escape de Spring Data, que se pasa como parámetro en ESCAPE
+    @Query(PROYECCION_DTO + "WHERE LOWER(p.nombreProducto) LIKE LOWER(CONCAT('%', :#{escape(#nombre)}, '%')) "
+            + "ESCAPE :#{escapeCharacter()} AND p.id > :id ORDER BY p.id ASC")
+    List<ProductosDTO> findDTOPaginaPorNombre(@Param("nombre") String nombre,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    @Query(PROYECCION_DTO + "WHERE (:soloActivos = false OR p.activo = true) "
+            + "AND p.precioProducto BETWEEN :minPrecio AND :maxPrecio "
+            + "AND (p.precioProducto > :precio OR (p.precioProducto = :precio AND p.id > :id)) "
+            + "ORDER BY p.precioProducto ASC, p.id ASC")
+    List<ProductosDTO> findDTOPaginaPorPrecio(@Param("soloActivos") boolean soloActivos,
+                                              @Param("minPrecio") Double minPrecio,
+                                              @Param("maxPrecio") Double maxPrecio,
+                                              @Param("precio") Double precio,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
 }
\ No newline at end of file
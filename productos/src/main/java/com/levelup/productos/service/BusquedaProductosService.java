@@ -0,0 +1,181 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.model.Productos;
+import com.levelup.productos.util.IndiceInvertido;
+import com.levelup.productos.util.Tokenizador;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Búsqueda de texto sobre nombre, categorías y descripción con un índice invertido en memoria.
+ * Se construye al arrancar leyendo la tabla en streaming y después lo mantiene
+ * {@link ProductosService} con cada escritura confirmada. Hasta que está listo las búsquedas
+ * van a la base de datos.
+ */
+@Service
+public class BusquedaProductosService {
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaProductosService.class);
+
+    // Una coincidencia en el nombre pesa más que en las categorías, y esta más que en la descripción
+    private static final float PESO_NOMBRE = 3f;
+    private static final float PESO_CATEGORIAS = 2f;
+    private static final float PESO_DESCRIPCION = 1f;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos por lock
+    private Estado estado = new Estado();
+    private List<Consumer<Estado>> cambiosDuranteConstruccion;
+
+    private volatile boolean listo;
+
+    public BusquedaProductosService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        meterRegistry.gauge("productos.indice.documentos", this, BusquedaProductosService::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        long inicio = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteConstruccion = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Estado nuevo = new Estado();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT id_producto, nombre_producto, descripcion_producto, categorias, activo FROM productos",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Con MySQL Connector/J, Integer.MIN_VALUE hace que las filas lleguen en streaming
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }, (ResultSet rs) -> nuevo.indexar(Productos.builder()
+                    .id(rs.getLong(1))
+                    .nombreProducto(rs.getString(2))
+                    .descripcionProducto(rs.getString(3))
+                    .categorias(rs.getString(4))
+                    .activo(rs.getObject(5, Boolean.class))
+                    .build()));
+        } catch (RuntimeException e) {
+            logger.error("No se pudo construir el índice de búsqueda: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteConstruccion = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Escrituras confirmadas mientras se leía la tabla: la fila leída pudo ser anterior
+            cambiosDuranteConstruccion.forEach(cambio -> cambio.accept(nuevo));
+            cambiosDuranteConstruccion = null;
+            estado = nuevo;
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de búsqueda construido: {} productos en {} ms",
+                nuevo.indice.size(), System.currentTimeMillis() - inicio);
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    public void indexar(Productos producto) {
+        aplicar(e -> e.indexar(producto));
+    }
+
+    public void eliminar(Long id) {
+        aplicar(e -> e.eliminar(id));
+    }
+
+    /**
+     * Ids que contienen todos los términos de la consulta, de más a menos relevante.
+     */
+    public List<Long> buscar(String consulta, boolean soloActivos) {
+        List<String> terminos = Tokenizador.tokens(consulta);
+        lock.readLock().lock();
+        try {
+            Set<Long> inactivos = estado.inactivos;
+            return estado.indice.buscar(terminos, id -> !soloActivos || !inactivos.contains(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void aplicar(Consumer<Estado> cambio) {
+        lock.writeLock().lock();
+        try {
+            cambio.accept(estado);
+            if (cambiosDuranteConstruccion != null) {
+                cambiosDuranteConstruccion.add(cambio);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return estado.indice.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final class Estado {
+        private final IndiceInvertido indice = new IndiceInvertido();
+        private final Set<Long> inactivos = new HashSet<>();
+
+        void indexar(Productos producto) {
+            Map<String, Float> pesos = new HashMap<>();
+            sumar(pesos, producto.getNombreProducto(), PESO_NOMBRE);
+            sumar(pesos, producto.getCategorias(), PESO_CATEGORIAS);
+            sumar(pesos, producto.getDescripcionProducto(), PESO_DESCRIPCION);
+            indice.indexar(producto.getId(), pesos);
+            if (Boolean.TRUE.equals(producto.getActivo())) {
+                inactivos.remove(producto.getId());
+            } else {
+                inactivos.add(producto.getId());
+            }
+        }
+
+        void eliminar(Long id) {
+            indice.eliminar(id);
+            inactivos.remove(id);
+        }
+
+        private static void sumar(Map<String, Float> pesos, String texto, float peso) {
+            for (String token : Tokenizador.tokens(texto)) {
+                pesos.merge(token, peso, Float::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.dto.ProductoEventoDTO;
+import com.levelup.productos.model.ProductoEvento;
+import com.levelup.productos.repository.ProductoEventoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publica por SSE los eventos de productos_eventos. La tarea programada lee la tabla una vez
+ * por cada secuencia distinta entre los suscriptores: los que están al día comparten la lectura
+ * y un cliente que se reconecta con Last-Event-ID atrasado avanza por su cuenta sin frenar a
+ * los demás. Los envíos, que bloquean mientras el socket no acepta datos, se hacen en un pool
+ * propio ({@code productos.cambios.hilos-envio}), nunca en el hilo del planificador, con como
+ * mucho un envío en curso por suscriptor.
+ * <p>
+ * Las secuencias se asignan al insertar pero las transacciones pueden confirmarse en otro
+ * orden: ante un hueco se espera {@code productos.cambios.espera-huecos} antes de saltarlo,
+ * por si la transacción que lo ocupa todavía no ha hecho commit.
+ */
+@Service
+public class CambiosProductosService {
+    private static final Logger logger = LoggerFactory.getLogger(CambiosProductosService.class);
+
+    private static final String EVENTO_PRODUCTO = "producto";
+    // El cliente pidió una secuencia ya purgada: debe descartar lo que tenga en caché
+    private static final String EVENTO_REINICIO = "reinicio";
+
+    private final ProductoEventoRepository productoEventoRepository;
+    private final int tamanioLote;
+    private final Duration esperaHuecos;
+    private final Duration retencion;
+    private final long timeout;
+    private final Executor envios;
+    private final List<Suscriptor> suscriptores = new CopyOnWriteArrayList<>();
+
+    public CambiosProductosService(ProductoEventoRepository productoEventoRepository,
+                                   @Value("${productos.cambios.tamanio-lote:500}") int tamanioLote,
+                                   @Value("${productos.cambios.espera-huecos:2s}") Duration esperaHuecos,
+                                   @Value("${productos.cambios.retencion:7d}") Duration retencion,
+                                   @Value("${productos.cambios.sse-timeout:30m}") Duration timeout,
+                                   @Value("${productos.cambios.hilos-envio:4}") int hilosEnvio) {
+        this(productoEventoRepository, tamanioLote, esperaHuecos, retencion, timeout, poolEnvios(hilosEnvio));
+    }
+
+    CambiosProductosService(ProductoEventoRepository productoEventoRepository, int tamanioLote,
+                            Duration esperaHuecos, Duration retencion, Duration timeout, Executor envios) {
+        this.productoEventoRepository = productoEventoRepository;
+        this.tamanioLote = tamanioLote;
+        this.esperaHuecos = esperaHuecos;
+        this.retencion = retencion;
+        this.timeout = timeout.toMillis();
+        this.envios = envios;
+    }
+
+    private static ExecutorService poolEnvios(int hilos) {
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newFixedThreadPool(hilos, runnable -> {
+            Thread thread = new Thread(runnable, "cambios-sse-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (envios instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Registra el evento en la transacción en curso, que debe ser la de la escritura.
+     */
+    public void registrar(Long productoId, ProductoEvento.Tipo tipo, Long version) {
+        productoEventoRepository.save(ProductoEvento.builder()
+                .productoId(productoId)
+                .tipo(tipo)
+                .version(version)
+                .fecha(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * @param desde última secuencia recibida por el cliente; {@code null} para recibir solo cambios nuevos
+     */
+    public SseEmitter suscribir(Long desde) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        long secuencia = desde != null ? desde : productoEventoRepository.findUltimaSecuencia();
+        Suscriptor suscriptor = new Suscriptor(emitter, secuencia);
+
+        if (desde != null) {
+            long primera = productoEventoRepository.findPrimeraSecuencia();
+            if (primera > 0 && desde < primera - 1) {
+                try {
+                    emitter.send(SseEmitter.event().name(EVENTO_REINICIO).data(primera - 1));
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                    return emitter;
+                }
+            }
+        }
+
+        emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        emitter.onTimeout(() -> suscriptores.remove(suscriptor));
+        emitter.onError(e -> suscriptores.remove(suscriptor));
+        suscriptores.add(suscriptor);
+        return emitter;
+    }
+
+    public int getSuscriptores() {
+        return suscriptores.size();
+    }
+
+    @Scheduled(fixedDelayString = "${productos.cambios.poll-interval-ms:500}")
+    public void publicar() {
+        // Los que aún tienen un envío en curso se retoman en la siguiente pasada desde su secuencia
+        Map<Long, List<Suscriptor>> porSecuencia = new HashMap<>();
+        for (Suscriptor suscriptor : suscriptores) {
+            if (!suscriptor.enviando.get()) {
+                porSecuencia.computeIfAbsent(suscriptor.secuencia, secuencia -> new ArrayList<>()).add(suscriptor);
+            }
+        }
+
+        LocalDateTime limiteHueco = LocalDateTime.now().minus(esperaHuecos);
+        porSecuencia.forEach((base, grupo) -> {
+            List<ProductoEvento> lote = productoEventoRepository.findByIdGreaterThanOrderByIdAsc(base, Limit.of(tamanioLote));
+            List<ProductoEvento> publicables = publicables(lote, base, limiteHueco);
+            if (publicables.isEmpty()) {
+                return;
+            }
+            for (Suscriptor suscriptor : grupo) {
+                enviar(suscriptor, () -> {
+                    for (ProductoEvento evento : publicables) {
+                        suscriptor.emitter.send(SseEmitter.event()
+                                .id(String.valueOf(evento.getId()))
+                                .name(EVENTO_PRODUCTO)
+                                .data(toDTO(evento)));
+                        suscriptor.secuencia = evento.getId();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Prefijo del lote que se puede enviar: se detiene en el primer hueco de secuencia posterior
+     * a {@code limiteHueco}, que puede ser una transacción aún sin confirmar. Un hueco anterior
+     * se da por perdido (rollback) y se salta.
+     *
+     * @param lote eventos con secuencia mayor que {@code base}, en orden
+     */
+    static List<ProductoEvento> publicables(List<ProductoEvento> lote, long base, LocalDateTime limiteHueco) {
+        List<ProductoEvento> publicables = new ArrayList<>(lote.size());
+        long esperado = base + 1;
+        for (ProductoEvento evento : lote) {
+            if (evento.getId() != esperado && evento.getFecha().isAfter(limiteHueco)) {
+                break;
+            }
+            publicables.add(evento);
+            esperado = evento.getId() + 1;
+        }
+        return publicables;
+    }
+
+    // Sin tráfico, un comentario periódico evita que proxies y balanceadores cierren la conexión
+    @Scheduled(fixedDelayString = "${productos.cambios.heartbeat-ms:15000}")
+    public void latido() {
+        for (Suscriptor suscriptor : suscriptores) {
+            // Si hay un envío en curso la conexión ya tiene tráfico
+            enviar(suscriptor, () -> suscriptor.emitter.send(SseEmitter.event().comment("latido")));
+        }
+    }
+
+    /**
+     * Encola el envío en el pool salvo que el suscriptor ya tenga uno en curso.
+     */
+    private void enviar(Suscriptor suscriptor, Envio envio) {
+        if (!suscriptor.enviando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            envios.execute(() -> {
+                try {
+                    envio.ejecutar();
+                } catch (IOException | IllegalStateException e) {
+                    // Conexión cerrada por el cliente: reconectará con Last-Event-ID
+                    suscriptores.remove(suscriptor);
+                    suscriptor.emitter.completeWithError(e);
+                } finally {
+                    suscriptor.enviando.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool detenido al apagar la aplicación
+            suscriptor.enviando.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${productos.cambios.purga-cron:0 0 4 * * *}")
+    public void purgar() {
+        int eliminados = productoEventoRepository.deleteAnterioresA(LocalDateTime.now().minus(retencion));
+        if (eliminados > 0) {
+            logger.info("Eventos de productos purgados: {}", eliminados);
+        }
+    }
+
+    private static ProductoEventoDTO toDTO(ProductoEvento evento) {
+        return ProductoEventoDTO.builder()
+                .secuencia(evento.getId())
+                .productoId(evento.getProductoId())
+                .tipo(evento.getTipo().name())
+                .version(evento.getVersion())
+                .fecha(evento.getFecha())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Envio {
+        void ejecutar() throws IOException;
+    }
+
+    private static final class Suscriptor {
+        private final SseEmitter emitter;
+        // Última secuencia enviada; solo la modifica el envío en curso
+        private volatile long secuencia;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        private Suscriptor(SseEmitter emitter, long secuencia) {
+            this.emitter = emitter;
+            this.secuencia = secuencia;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.exception.CategoriaInvalidaException;
+import com.levelup.productos.model.Categoria;
+import com.levelup.productos.model.Productos;
+import com.levelup.productos.repository.CategoriaRepository;
+import com.levelup.productos.repository.ProductoCategoriaRepository;
+import com.levelup.productos.util.Tokenizador;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantiene las tablas categorias y productos_categorias a partir del texto separado por comas
+ * de {@link Productos#getCategorias()}.
+ */
+@Service
+public class CategoriaService {
+    private static final Logger logger = LoggerFactory.getLogger(CategoriaService.class);
+
+    private static final int TAMANIO_LOTE = 1000;
+    // INSERT IGNORE: sin error si otra transacción creó la misma categoría o relación a la vez
+    private static final String INSERTAR_CATEGORIA = "INSERT IGNORE INTO categorias (clave, nombre) VALUES (?, ?)";
+    private static final String INSERTAR_RELACION =
+            "INSERT IGNORE INTO productos_categorias (producto_id, categoria_id) VALUES (?, ?)";
+
+    private final CategoriaRepository categoriaRepository;
+    private final ProductoCategoriaRepository productoCategoriaRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public CategoriaService(CategoriaRepository categoriaRepository,
+                            ProductoCategoriaRepository productoCategoriaRepository,
+                            JdbcTemplate jdbcTemplate) {
+        this.categoriaRepository = categoriaRepository;
+        this.productoCategoriaRepository = productoCategoriaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Categorías de un texto como "Cámaras, Fotografía": clave normalizada → nombre visible,
+     * sin repetidas.
+     */
+    public static Map<String, String> parsear(String categorias) {
+        Map<String, String> resultado = new LinkedHashMap<>();
+        if (categorias == null) {
+            return resultado;
+        }
+        for (String parte : categorias.split(",")) {
+            String nombre = parte.trim();
+            if (!nombre.isEmpty()) {
+                resultado.putIfAbsent(clave(nombre), nombre);
+            }
+        }
+        return resultado;
+    }
+
+    public static String clave(String nombre) {
+        return Tokenizador.normalizar(nombre.trim());
+    }
+
+    /**
+     * Reemplaza las categorías del producto por las de su texto. Se ejecuta dentro de la
+     * transacción que guarda el producto.
+     */
+    @Transactional
+    public void sincronizar(Productos producto) {
+        productoCategoriaRepository.deleteByProductoId(producto.getId());
+        Map<String, String> categorias = parsear(producto.getCategorias());
+        if (categorias.isEmpty()) {
+            return;
+        }
+        List<Object[]> nuevas = new ArrayList<>(categorias.size());
+        categorias.forEach((clave, nombre) -> {
+            // INSERT IGNORE truncaría la clave en lugar de fallar
+            if (clave.length() > Categoria.LONGITUD_MAXIMA || nombre.length() > Categoria.LONGITUD_MAXIMA) {
+                throw new CategoriaInvalidaException("La categoría '" + nombre + "' supera los "
+                        + Categoria.LONGITUD_MAXIMA + " caracteres");
+            }
+            nuevas.add(new Object[]{clave, nombre});
+        });
+        jdbcTemplate.batchUpdate(INSERTAR_CATEGORIA, nuevas);
+
+        List<Object[]> relaciones = new ArrayList<>(categorias.size());
+        for (Categoria categoria : categoriaRepository.findByClaveIn(categorias.keySet())) {
+            relaciones.add(new Object[]{producto.getId(), categoria.getId()});
+        }
+        jdbcTemplate.batchUpdate(INSERTAR_RELACION, relaciones);
+    }
+
+    @Transactional
+    public void eliminar(Long productoId) {
+        productoCategoriaRepository.deleteByProductoId(productoId);
+    }
+
+    /**
+     * Rellena productos_categorias la primera vez que arranca el servicio con la tabla vacía.
+     * Lee los productos en streaming e inserta las relaciones por lotes.
+     */
+    public void migrarSiVacia() {
+        Long relaciones = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM productos_categorias", Long.class);
+        if (relaciones != null && relaciones > 0) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+
+        Map<String, String> nombres = new HashMap<>();
+        recorrerProductos((id, categorias) -> parsear(categorias).forEach(nombres::putIfAbsent));
+        // Las anteriores a la validación de longitud se quedan solo en el texto del producto
+        nombres.entrySet().removeIf(categoria -> categoria.getKey().length() > Categoria.LONGITUD_MAXIMA
+                || categoria.getValue().length() > Categoria.LONGITUD_MAXIMA);
+        if (nombres.isEmpty()) {
+            return;
+        }
+        List<Object[]> nuevas = new ArrayList<>();
+        nombres.forEach((clave, nombre) -> nuevas.add(new Object[]{clave, nombre}));
+        jdbcTemplate.batchUpdate(INSERTAR_CATEGORIA, nuevas);
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id_categoria, clave FROM categorias",
+                (ResultSet rs) -> {
+                    ids.put(rs.getString(2), rs.getLong(1));
+                });
+
+        List<Object[]> lote = new ArrayList<>(TAMANIO_LOTE);
+        long[] total = {0};
+        recorrerProductos((id, categorias) -> {
+            for (String clave : parsear(categorias).keySet()) {
+                Long categoriaId = ids.get(clave);
+                if (categoriaId != null) {
+                    lote.add(new Object[]{id, categoriaId});
+                }
+            }
+            if (lote.size() >= TAMANIO_LOTE) {
+                total[0] += insertarRelaciones(lote);
+            }
+        });
+        total[0] += insertarRelaciones(lote);
+        logger.info("Categorías normalizadas: {} categorías, {} relaciones en {} ms",
+                ids.size(), total[0], System.currentTimeMillis() - inicio);
+    }
+
+    private int insertarRelaciones(List<Object[]> lote) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERTAR_RELACION, lote);
+        int insertadas = lote.size();
+        lote.clear();
+        return insertadas;
+    }
+
+    private void recorrerProductos(FilaProducto fila) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id_producto, categorias FROM productos WHERE categorias IS NOT NULL",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Con MySQL Connector/J, Integer.MIN_VALUE hace que las filas lleguen en streaming
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, (ResultSet rs) -> {
+            fila.procesar(rs.getLong(1), rs.getString(2));
+        });
+    }
+
+    @FunctionalInterface
+    private interface FilaProducto {
+        void procesar(long id, String categorias);
+    }
+}
@@ -0,0 +1,310 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.dto.FacetaDTO;
+import com.levelup.productos.dto.FacetasDTO;
+import com.levelup.productos.model.Productos;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice en memoria de categoría → productos, tramo de precio → productos y productos activos,
+ * con bitmaps comprimidos (Roaring). Filtrar es intersectar bitmaps y los conteos por faceta
+ * salen de una sola pasada sobre las categorías con {@code andCardinality}, sin materializar
+ * los productos.
+ * <p>
+ * Se construye al arrancar desde productos_categorias y lo actualiza {@link ProductosService}
+ * con cada escritura confirmada. Los ids de producto deben caber en un int.
+ */
+@Service
+public class FacetasProductosService {
+    private static final Logger logger = LoggerFactory.getLogger(FacetasProductosService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoriaService categoriaService;
+    // Límites entre tramos: con [50, 100] los tramos son <50, 50-100 y >=100
+    private final double[] limitesTramos;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos por lock
+    private Estado estado;
+    private List<Consumer<Estado>> cambiosDuranteConstruccion;
+
+    private volatile boolean listo;
+
+    public FacetasProductosService(JdbcTemplate jdbcTemplate, CategoriaService categoriaService,
+                                   @Value("${productos.facetas.limites-precio:10000,50000,100000,500000}")
+                                   double[] limitesTramos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.categoriaService = categoriaService;
+        this.limitesTramos = limitesTramos.clone();
+        Arrays.sort(this.limitesTramos);
+        this.estado = new Estado(this.limitesTramos.length + 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        long inicio = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteConstruccion = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Estado nuevo = new Estado(limitesTramos.length + 1);
+        try {
+            categoriaService.migrarSiVacia();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT p.id_producto, p.activo, p.precio_producto, c.clave, c.nombre FROM productos p "
+                                + "LEFT JOIN productos_categorias pc ON pc.producto_id = p.id_producto "
+                                + "LEFT JOIN categorias c ON c.id_categoria = pc.categoria_id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Con MySQL Connector/J, Integer.MIN_VALUE hace que las filas lleguen en streaming
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }, (ResultSet rs) -> {
+                int id = Math.toIntExact(rs.getLong(1));
+                nuevo.todos.add(id);
+                if (rs.getBoolean(2)) {
+                    nuevo.activos.add(id);
+                }
+                double precio = rs.getDouble(3);
+                if (!rs.wasNull()) {
+                    nuevo.porTramo[tramo(precio)].add(id);
+                }
+                String clave = rs.getString(4);
+                if (clave != null) {
+                    nuevo.agregarCategoria(id, clave, rs.getString(5));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("No se pudo construir el índice de facetas: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteConstruccion = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        nuevo.optimizar();
+
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteConstruccion.forEach(cambio -> cambio.accept(nuevo));
+            cambiosDuranteConstruccion = null;
+            estado = nuevo;
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de facetas construido: {} productos, {} categorías en {} ms",
+                nuevo.todos.getCardinality(), nuevo.porCategoria.size(), System.currentTimeMillis() - inicio);
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    public void actualizar(Productos producto) {
+        int id = Math.toIntExact(producto.getId());
+        Map<String, String> categorias = CategoriaService.parsear(producto.getCategorias());
+        Double precio = producto.getPrecioProducto();
+        boolean activo = Boolean.TRUE.equals(producto.getActivo());
+        aplicar(e -> {
+            e.quitar(id);
+            e.todos.add(id);
+            if (activo) {
+                e.activos.add(id);
+            }
+            if (precio != null) {
+                e.porTramo[tramo(precio)].add(id);
+            }
+            categorias.forEach((clave, nombre) -> e.agregarCategoria(id, clave, nombre));
+        });
+    }
+
+    public void eliminar(Long id) {
+        int entero = Math.toIntExact(id);
+        aplicar(e -> e.quitar(entero));
+    }
+
+    /**
+     * Productos que cumplen todos los filtros, en orden de id.
+     *
+     * @param candidatos  ids de una búsqueda previa, o {@code null} para partir de todo el catálogo
+     * @param categorias  claves o nombres de categoría; el producto debe tenerlas todas
+     * @param tramo       índice del tramo de precio, o {@code null} para no filtrar por precio
+     */
+    public RoaringBitmap filtrar(Collection<Long> candidatos, Collection<String> categorias,
+                                 Integer tramo, boolean soloActivos) {
+        lock.readLock().lock();
+        try {
+            return filtrarSinLock(candidatos, categorias, tramo, soloActivos);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Total de productos que cumplen los filtros y, para cada categoría y tramo de precio,
+     * cuántos de ellos pertenecen a él. Las facetas con cero productos no se incluyen.
+     */
+    public FacetasDTO facetas(Collection<Long> candidatos, Collection<String> categorias,
+                              Integer tramo, boolean soloActivos) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap resultado = filtrarSinLock(candidatos, categorias, tramo, soloActivos);
+
+            List<FacetaDTO> porCategoria = new ArrayList<>();
+            estado.porCategoria.forEach((clave, ids) -> {
+                int total = RoaringBitmap.andCardinality(resultado, ids);
+                if (total > 0) {
+                    porCategoria.add(new FacetaDTO(clave, estado.nombres.get(clave), total));
+                }
+            });
+            porCategoria.sort((a, b) -> Long.compare(b.getTotal(), a.getTotal()));
+
+            List<FacetaDTO> porTramo = new ArrayList<>();
+            for (int i = 0; i < estado.porTramo.length; i++) {
+                int total = RoaringBitmap.andCardinality(resultado, estado.porTramo[i]);
+                if (total > 0) {
+                    porTramo.add(new FacetaDTO(String.valueOf(i), nombreTramo(i), total));
+                }
+            }
+
+            return FacetasDTO.builder()
+                    .total(resultado.getLongCardinality())
+                    .categorias(porCategoria)
+                    .tramosPrecio(porTramo)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getNumeroTramos() {
+        return limitesTramos.length + 1;
+    }
+
+    private RoaringBitmap filtrarSinLock(Collection<Long> candidatos, Collection<String> categorias,
+                                         Integer tramo, boolean soloActivos) {
+        RoaringBitmap resultado;
+        if (candidatos != null) {
+            resultado = new RoaringBitmap();
+            candidatos.forEach(id -> resultado.add(Math.toIntExact(id)));
+            resultado.and(estado.todos);
+        } else {
+            resultado = estado.todos.clone();
+        }
+        if (soloActivos) {
+            resultado.and(estado.activos);
+        }
+        if (tramo != null) {
+            resultado.and(estado.porTramo[tramo]);
+        }
+        if (categorias != null) {
+            for (String categoria : categorias) {
+                RoaringBitmap ids = estado.porCategoria.get(CategoriaService.clave(categoria));
+                if (ids == null) {
+                    return new RoaringBitmap();
+                }
+                resultado.and(ids);
+            }
+        }
+        return resultado;
+    }
+
+    private int tramo(double precio) {
+        int posicion = Arrays.binarySearch(limitesTramos, precio);
+        // Un precio igual al límite pertenece al tramo superior
+        return posicion >= 0 ? posicion + 1 : -posicion - 1;
+    }
+
+    private String nombreTramo(int tramo) {
+        if (limitesTramos.length == 0) {
+            return "Todos";
+        }
+        if (tramo == 0) {
+            return "< " + formatear(limitesTramos[0]);
+        }
+        if (tramo == limitesTramos.length) {
+            return ">= " + formatear(limitesTramos[tramo - 1]);
+        }
+        return formatear(limitesTramos[tramo - 1]) + " - " + formatear(limitesTramos[tramo]);
+    }
+
+    private static String formatear(double valor) {
+        return valor == Math.rint(valor) ? String.valueOf((long) valor) : String.valueOf(valor);
+    }
+
+    private void aplicar(Consumer<Estado> cambio) {
+        lock.writeLock().lock();
+        try {
+            cambio.accept(estado);
+            if (cambiosDuranteConstruccion != null) {
+                cambiosDuranteConstruccion.add(cambio);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Estado {
+        private final RoaringBitmap todos = new RoaringBitmap();
+        private final RoaringBitmap activos = new RoaringBitmap();
+        private final RoaringBitmap[] porTramo;
+        private final Map<String, RoaringBitmap> porCategoria = new HashMap<>();
+        private final Map<String, String> nombres = new HashMap<>();
+
+        Estado(int tramos) {
+            porTramo = new RoaringBitmap[tramos];
+            for (int i = 0; i < tramos; i++) {
+                porTramo[i] = new RoaringBitmap();
+            }
+        }
+
+        void agregarCategoria(int id, String clave, String nombre) {
+            porCategoria.computeIfAbsent(clave, c -> new RoaringBitmap()).add(id);
+            nombres.putIfAbsent(clave, nombre);
+        }
+
+        void quitar(int id) {
+            todos.remove(id);
+            activos.remove(id);
+            for (RoaringBitmap ids : porTramo) {
+                ids.remove(id);
+            }
+            porCategoria.values().forEach(ids -> ids.remove(id));
+        }
+
+        // Convierte a run containers donde compensa (ids consecutivos)
+        void optimizar() {
+            todos.runOptimize();
+            activos.runOptimize();
+            for (RoaringBitmap ids : porTramo) {
+                ids.runOptimize();
+            }
+            porCategoria.values().forEach(RoaringBitmap::runOptimize);
+        }
+    }
+}
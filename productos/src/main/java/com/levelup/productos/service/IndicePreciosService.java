@@ -0,0 +1,187 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.model.Productos;
+import com.levelup.productos.util.IndicePrecios;
+import com.levelup.productos.util.IndicePrecios.Cambio;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Consultas por rango de precio desde un {@link IndicePrecios} en memoria. Los cambios
+ * confirmados se guardan en un buffer que tiene prioridad sobre el índice y, al llegar a
+ * {@code productos.indice-precios.max-pendientes}, se fusionan en un índice nuevo.
+ */
+@Service
+public class IndicePreciosService {
+    private static final Logger logger = LoggerFactory.getLogger(IndicePreciosService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPendientes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos por lock
+    private IndicePrecios indice = IndicePrecios.vacio();
+    private final Map<Long, Cambio> pendientes = new HashMap<>();
+    private boolean construyendo;
+
+    private volatile boolean listo;
+
+    public IndicePreciosService(JdbcTemplate jdbcTemplate,
+                                @Value("${productos.indice-precios.max-pendientes:1024}") int maxPendientes,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPendientes = maxPendientes;
+        meterRegistry.gauge("productos.indice.precios.size", this, IndicePreciosService::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        long inicio = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            construyendo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndicePrecios.Builder builder = new IndicePrecios.Builder(1024);
+        try {
+            jdbcTemplate.query(connection -> {
+                // Recorre idx_productos_precio_id: las filas llegan ya en el orden del índice
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT id_producto, precio_producto, activo FROM productos "
+                                + "WHERE precio_producto IS NOT NULL ORDER BY precio_producto, id_producto",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Con MySQL Connector/J, Integer.MIN_VALUE hace que las filas lleguen en streaming
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }, (ResultSet rs) -> builder.agregar(rs.getLong(1), rs.getDouble(2), rs.getBoolean(3)));
+        } catch (RuntimeException e) {
+            logger.error("No se pudo construir el índice de precios: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                construyendo = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Los cambios llegados durante la lectura siguen en el buffer y prevalecen sobre lo leído
+            indice = builder.build();
+            construyendo = false;
+            listo = true;
+            fusionarSiLleno();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de precios construido: {} productos en {} ms",
+                indice.size(), System.currentTimeMillis() - inicio);
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    public void actualizar(Productos producto) {
+        Cambio cambio = producto.getPrecioProducto() == null
+                ? Cambio.eliminado(producto.getId())
+                : Cambio.actualizado(producto.getId(), producto.getPrecioProducto(),
+                        Boolean.TRUE.equals(producto.getActivo()));
+        registrar(cambio);
+    }
+
+    public void eliminar(Long id) {
+        registrar(Cambio.eliminado(id));
+    }
+
+    /**
+     * Ids con precio entre {@code min} y {@code max} (ambos incluidos), ordenados por precio e id.
+     */
+    public List<Long> buscarRango(double min, double max, boolean soloActivos, int limite) {
+        lock.readLock().lock();
+        try {
+            List<Cambio> extra = new ArrayList<>();
+            for (Cambio cambio : pendientes.values()) {
+                if (cambio.getPrecio() >= min && cambio.getPrecio() <= max && (!soloActivos || cambio.isActivo())) {
+                    extra.add(cambio);
+                }
+            }
+            extra = IndicePrecios.ordenados(extra);
+
+            List<Long> resultado = new ArrayList<>(Math.min(limite, 1024));
+            int posicion = indice.desde(min);
+            int fin = indice.hasta(max);
+            int k = 0;
+            while (resultado.size() < limite) {
+                // Entradas sustituidas por un cambio pendiente o inactivas no cuentan
+                while (posicion < fin && (pendientes.containsKey(indice.id(posicion))
+                        || (soloActivos && !indice.activo(posicion)))) {
+                    posicion++;
+                }
+                boolean quedanIndice = posicion < fin;
+                boolean quedanExtra = k < extra.size();
+                if (!quedanIndice && !quedanExtra) {
+                    break;
+                }
+                if (quedanIndice && (!quedanExtra || IndicePrecios.comparar(indice.precio(posicion),
+                        indice.id(posicion), extra.get(k).getPrecio(), extra.get(k).getId()) < 0)) {
+                    resultado.add(indice.id(posicion++));
+                } else {
+                    resultado.add(extra.get(k++).getId());
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> buscarMayoresQue(double precio, boolean soloActivos, int limite) {
+        return buscarRango(Math.nextUp(precio), Double.POSITIVE_INFINITY, soloActivos, limite);
+    }
+
+    private void registrar(Cambio cambio) {
+        lock.writeLock().lock();
+        try {
+            pendientes.put(cambio.getId(), cambio);
+            fusionarSiLleno();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Llamar con el lock de escritura
+    private void fusionarSiLleno() {
+        if (!construyendo && pendientes.size() >= maxPendientes) {
+            indice = indice.fusionar(pendientes);
+            pendientes.clear();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return indice.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
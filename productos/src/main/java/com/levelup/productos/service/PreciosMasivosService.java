@@ -0,0 +1,228 @@
+package com.levelup.productos.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.levelup.productos.dto.ActualizacionMasivaPreciosDTO;
+import com.levelup.productos.dto.TrabajoMasivoDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cambios de precio y descuento sobre muchos productos en segundo plano. La selección se
+ * resuelve con una consulta y se actualiza por bloques: un UPDATE ... WHERE id IN (...) por
+ * bloque en su propia transacción, y las cachés e índices se refrescan una vez por bloque.
+ * <p>
+ * Los trabajos se ejecutan de uno en uno y su progreso se consulta por id mientras están
+ * pendientes o en curso, y durante {@code productos.precios-masivos.retencion} una vez terminados.
+ */
+@Service
+public class PreciosMasivosService {
+    private static final Logger logger = LoggerFactory.getLogger(PreciosMasivosService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductosService productosService;
+    private final int tamanioBloque;
+    private final long retencionNanos;
+    private final Cache<String, Trabajo> trabajos;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "precios-masivos");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PreciosMasivosService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 ProductosService productosService,
+                                 @Value("${productos.precios-masivos.tamanio-bloque:1000}") int tamanioBloque,
+                                 @Value("${productos.precios-masivos.retencion:1h}") Duration retencion) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productosService = productosService;
+        this.tamanioBloque = tamanioBloque;
+        this.retencionNanos = retencion.toNanos();
+        this.trabajos = Caffeine.newBuilder()
+                .expireAfter(new RetencionTerminados())
+                .build();
+    }
+
+    /**
+     * Valida la petición y encola el trabajo.
+     *
+     * @throws IllegalArgumentException si no hay exactamente un criterio de selección o el descuento supera el 100%
+     */
+    public TrabajoMasivoDTO iniciar(ActualizacionMasivaPreciosDTO peticion) {
+        validar(peticion);
+        Trabajo trabajo = new Trabajo(UUID.randomUUID().toString());
+        trabajos.put(trabajo.id, trabajo);
+        executor.execute(() -> ejecutar(trabajo, peticion));
+        return trabajo.estado();
+    }
+
+    public Optional<TrabajoMasivoDTO> consultar(String id) {
+        return Optional.ofNullable(trabajos.getIfPresent(id)).map(Trabajo::estado);
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    private void ejecutar(Trabajo trabajo, ActualizacionMasivaPreciosDTO peticion) {
+        trabajo.inicio = LocalDateTime.now();
+        trabajo.estadoActual = TrabajoMasivoDTO.Estado.EN_CURSO;
+        try {
+            List<Long> ids = seleccionar(peticion);
+            trabajo.total = ids.size();
+            for (int desde = 0; desde < ids.size(); desde += tamanioBloque) {
+                List<Long> bloque = ids.subList(desde, Math.min(desde + tamanioBloque, ids.size()));
+                transactionTemplate.executeWithoutResult(status -> actualizarBloque(peticion, bloque));
+                productosService.refrescarLote(bloque);
+                trabajo.procesados += bloque.size();
+            }
+            trabajo.estadoActual = TrabajoMasivoDTO.Estado.COMPLETADO;
+            logger.info("Actualización masiva {} completada: {} productos", trabajo.id, trabajo.total);
+        } catch (RuntimeException e) {
+            // Los bloques ya confirmados se mantienen; procesados indica hasta dónde se llegó
+            trabajo.error = e.getMessage();
+            trabajo.estadoActual = TrabajoMasivoDTO.Estado.FALLIDO;
+            logger.error("Actualización masiva {} fallida tras {} productos: {}",
+                    trabajo.id, trabajo.procesados, e.getMessage());
+        } finally {
+            trabajo.fin = LocalDateTime.now();
+            // Volver a guardarlo hace que empiece a contar la retención
+            trabajos.put(trabajo.id, trabajo);
+        }
+    }
+
+    private void actualizarBloque(ActualizacionMasivaPreciosDTO peticion, List<Long> bloque) {
+        String marcadores = String.join(",", Collections.nCopies(bloque.size(), "?"));
+        List<Object> parametros = new ArrayList<>(bloque.size() + 1);
+        String asignaciones;
+        if (peticion.getTipo() == ActualizacionMasivaPreciosDTO.Tipo.PRECIO) {
+            asignaciones = "precio_producto = ?";
+        } else {
+            // MySQL evalúa las asignaciones en orden: precio_producto ya ve el descuento nuevo
+            asignaciones = "descuento_producto = precio_producto * ? / 100, "
+                    + "precio_producto = precio_producto - descuento_producto";
+        }
+        parametros.add(peticion.getValor());
+        parametros.addAll(bloque);
+        jdbcTemplate.update("UPDATE productos SET " + asignaciones
+                        + ", version = version + 1, fecha_actualizacion = NOW(6) WHERE id_producto IN (" + marcadores + ")",
+                parametros.toArray());
+        // Outbox en la misma transacción que el bloque
+        List<Object> parametrosEvento = new ArrayList<>(bloque.size() + 1);
+        parametrosEvento.add(Timestamp.valueOf(LocalDateTime.now()));
+        parametrosEvento.addAll(bloque);
+        jdbcTemplate.update("INSERT INTO productos_eventos (producto_id, tipo, version, fecha) "
+                        + "SELECT id_producto, 'ACTUALIZADO', version, ? FROM productos "
+                        + "WHERE id_producto IN (" + marcadores + ")",
+                parametrosEvento.toArray());
+    }
+
+    private List<Long> seleccionar(ActualizacionMasivaPreciosDTO peticion) {
+        if (peticion.getIds() != null) {
+            return peticion.getIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+        }
+        if (porCategoria(peticion)) {
+            return jdbcTemplate.queryForList("SELECT pc.producto_id FROM productos_categorias pc "
+                            + "JOIN categorias c ON c.id_categoria = pc.categoria_id WHERE c.clave = ? "
+                            + "ORDER BY pc.producto_id",
+                    Long.class, CategoriaService.clave(peticion.getCategoria()));
+        }
+        return jdbcTemplate.queryForList("SELECT id_producto FROM productos "
+                        + "WHERE precio_producto BETWEEN ? AND ? ORDER BY id_producto",
+                Long.class, peticion.getPrecioMinimo(), peticion.getPrecioMaximo());
+    }
+
+    private static void validar(ActualizacionMasivaPreciosDTO peticion) {
+        boolean porIds = peticion.getIds() != null;
+        boolean porCategoria = porCategoria(peticion);
+        boolean porPrecio = peticion.getPrecioMinimo() != null || peticion.getPrecioMaximo() != null;
+        int criterios = (porIds ? 1 : 0) + (porCategoria ? 1 : 0) + (porPrecio ? 1 : 0);
+        if (criterios != 1) {
+            throw new IllegalArgumentException("Indique exactamente uno de: ids, categoria o rango de precio");
+        }
+        if (porPrecio && (peticion.getPrecioMinimo() == null || peticion.getPrecioMaximo() == null
+                || peticion.getPrecioMinimo() > peticion.getPrecioMaximo())) {
+            throw new IllegalArgumentException("El rango de precio requiere precioMinimo <= precioMaximo");
+        }
+        if (peticion.getTipo() == ActualizacionMasivaPreciosDTO.Tipo.DESCUENTO && peticion.getValor() > 100) {
+            throw new IllegalArgumentException("El descuento no puede ser mayor a 100%");
+        }
+    }
+
+    // Una categoría en blanco cuenta como no indicada, igual al validar que al seleccionar
+    private static boolean porCategoria(ActualizacionMasivaPreciosDTO peticion) {
+        return peticion.getCategoria() != null && !peticion.getCategoria().isBlank();
+    }
+
+    private static final class Trabajo {
+        private final String id;
+        private volatile TrabajoMasivoDTO.Estado estadoActual = TrabajoMasivoDTO.Estado.PENDIENTE;
+        private volatile int total;
+        // Solo lo escribe el hilo del executor
+        private volatile int procesados;
+        private volatile String error;
+        private volatile LocalDateTime inicio;
+        private volatile LocalDateTime fin;
+
+        private Trabajo(String id) {
+            this.id = id;
+        }
+
+        boolean terminado() {
+            return estadoActual == TrabajoMasivoDTO.Estado.COMPLETADO
+                    || estadoActual == TrabajoMasivoDTO.Estado.FALLIDO;
+        }
+
+        TrabajoMasivoDTO estado() {
+            return TrabajoMasivoDTO.builder()
+                    .id(id)
+                    .estado(estadoActual)
+                    .total(total)
+                    .procesados(procesados)
+                    .error(error)
+                    .inicio(inicio)
+                    .fin(fin)
+                    .build();
+        }
+    }
+
+    // Un trabajo pendiente o en curso no caduca, por largo que sea
+    private class RetencionTerminados implements Expiry<String, Trabajo> {
+
+        @Override
+        public long expireAfterCreate(String id, Trabajo trabajo, long currentTime) {
+            return trabajo.terminado() ? retencionNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, Trabajo trabajo, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, trabajo, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, Trabajo trabajo, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
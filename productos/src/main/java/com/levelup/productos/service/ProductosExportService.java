@@ -0,0 +1,108 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.mapper.ProductosMapper;
+import com.levelup.productos.model.Productos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exportación del catálogo en NDJSON (un producto por línea) para los generadores de feeds
+ * y el indexador. Las filas se leen en streaming y se escriben según llegan, sin pasar por
+ * el contexto de persistencia: la memoria usada no depende del tamaño del catálogo.
+ */
+@Service
+public class ProductosExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductosExportService.class);
+
+    private static final String SELECT = "SELECT id_producto, nombre_producto, descripcion_producto, "
+            + "precio_producto, descuento_producto, activo, image_producto, categorias, fecha_actualizacion, "
+            + "version FROM productos";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductosMapper productosMapper;
+    private final ObjectMapper objectMapper;
+
+    public ProductosExportService(JdbcTemplate jdbcTemplate, ProductosMapper productosMapper,
+                                  ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productosMapper = productosMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param activo            solo productos con ese estado; {@code null} para todos
+     * @param modificadoDesde   solo productos creados o modificados desde ese instante; {@code null} para todos
+     */
+    public void exportar(Boolean activo, LocalDateTime modificadoDesde, OutputStream out) {
+        StringBuilder sql = new StringBuilder(SELECT).append(" WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
+        if (activo != null) {
+            sql.append(" AND activo = ?");
+            parametros.add(activo);
+        }
+        if (modificadoDesde != null) {
+            // Las filas anteriores a la columna fecha_actualizacion solo tienen fecha de creación
+            sql.append(" AND (fecha_actualizacion >= ? OR (fecha_actualizacion IS NULL AND fecha_creacion >= ?))");
+            parametros.add(Timestamp.valueOf(modificadoDesde));
+            parametros.add(Timestamp.valueOf(modificadoDesde));
+        }
+        sql.append(" ORDER BY id_producto");
+
+        long inicio = System.currentTimeMillis();
+        long[] filas = {0};
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Con MySQL Connector/J, Integer.MIN_VALUE hace que las filas lleguen en streaming
+                statement.setFetchSize(Integer.MIN_VALUE);
+                for (int i = 0; i < parametros.size(); i++) {
+                    statement.setObject(i + 1, parametros.get(i));
+                }
+                return statement;
+            }, (ResultSet rs) -> {
+                writer.write(productosMapper.toDTO(leerFila(rs)));
+                filas[0]++;
+            });
+            writer.flush();
+            // El separador solo va entre valores: la última línea se cierra aquí, salvo sin filas
+            if (filas[0] > 0) {
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("Exportación de productos: {} filas en {} ms", filas[0], System.currentTimeMillis() - inicio);
+    }
+
+    private static Productos leerFila(ResultSet rs) throws SQLException {
+        Timestamp actualizacion = rs.getTimestamp(9);
+        return Productos.builder()
+                .id(rs.getLong(1))
+                .nombreProducto(rs.getString(2))
+                .descripcionProducto(rs.getString(3))
+                .precioProducto(rs.getObject(4, Double.class))
+                .descuentoProducto(rs.getObject(5, Double.class))
+                .activo(rs.getObject(6, Boolean.class))
+                .imageProducto(rs.getString(7))
+                .categorias(rs.getString(8))
+                .fechaActualizacion(actualizacion == null ? null : actualizacion.toLocalDateTime())
+                .version(rs.getObject(10, Long.class))
+                .build();
+    }
+}
@@ -1,47 +1,163 @@
 package com.levelup.productos.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.levelup.productos.dto.ProductosDTO;
+import com.levelup.productos.model.ProductoEvento;
 import com.levelup.productos.model.Productos;
 import com.levelup.productos.repository.ProductosRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Las lecturas por id y el catálogo activo se sirven desde memoria. Cada operación que
+ * modifica un producto invalida su entrada y el catálogo activo, otra vez tras el commit
+ * para que una lectura concurrente no vuelva a cachear la fila anterior.
+ */
 @Service
-@RequiredArgsConstructor
 public class ProductosService {
 
     private final ProductosRepository productosRepository;
+    private final BusquedaProductosService busquedaProductosService;
+    private final IndicePreciosService indicePreciosService;
+    private final CategoriaService categoriaService;
+    private final FacetasProductosService facetasProductosService;
+    private final CambiosProductosService cambiosProductosService;
+    private final Cache<Long, Productos> productoCache;
+    // Se incrementa con cada escritura: un catálogo cargado antes no llega a publicarse
+    private final AtomicLong versionCatalogo = new AtomicLong();
+    private volatile List<Productos> catalogoActivo;
+    // Tope de los listados sin paginar; más allá hay que usar los endpoints /page
+    private final Limit maxResultados;
 
-    public List<Productos> findAll() {
-        return productosRepository.findAll();
+    public ProductosService(ProductosRepository productosRepository,
+                            BusquedaProductosService busquedaProductosService,
+                            IndicePreciosService indicePreciosService,
+                            CategoriaService categoriaService,
+                            FacetasProductosService facetasProductosService,
+                            CambiosProductosService cambiosProductosService,
+                            @Value("${productos.cache.max-weight:52428800}") long maxWeight,
+                            @Value("${productos.cache.ttl:30m}") Duration ttl,
+                            @Value("${productos.listado.max-resultados:1000}") int maxResultados,
+                            MeterRegistry meterRegistry) {
+        this.productosRepository = productosRepository;
+        this.busquedaProductosService = busquedaProductosService;
+        this.indicePreciosService = indicePreciosService;
+        this.categoriaService = categoriaService;
+        this.facetasProductosService = facetasProductosService;
+        this.cambiosProductosService = cambiosProductosService;
+        this.maxResultados = Limit.of(maxResultados);
+        this.productoCache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher(ProductosService::pesoAproximado)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions y cache.size con cache=productos
+        CaffeineCacheMetrics.monitor(meterRegistry, productoCache, "productos");
+        meterRegistry.gauge("productos.cache.activos.size", this,
+                service -> {
+                    List<Productos> activos = service.catalogoActivo;
+                    return activos == null ? 0 : activos.size();
+                });
+    }
+
+    public int getMaxResultados() {
+        return maxResultados.max();
     }
 
+    /**
+     * Los listados de solo lectura se proyectan a DTO en la consulta: no pasan por el
+     * contexto de persistencia ni por el mapper.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductosDTO> findAllDTO() {
+        return productosRepository.findDTOPaginaPorId(false, 0L, maxResultados);
+    }
+
+    /**
+     * Catálogo activo compartido entre peticiones: la lista es inmutable y sus elementos
+     * no deben modificarse.
+     */
     public List<Productos> findAllActivos() {
-        return productosRepository.findByActivoTrue();
+        List<Productos> actual = catalogoActivo;
+        if (actual != null) {
+            return actual;
+        }
+        long version = versionCatalogo.get();
+        List<Productos> productos = List.copyOf(
+                productosRepository.findByActivoTrueAndIdGreaterThanOrderByIdAsc(0L, maxResultados));
+        publicarCatalogo(version, productos);
+        return productos;
     }
 
     public List<Productos> findAllInactivos() {
         return productosRepository.findByActivoFalse();
     }
 
+    /**
+     * Devuelve una copia de la entrada en caché: quien la reciba puede modificarla
+     * (p.ej. para guardarla después) sin alterar lo que ven las demás peticiones.
+     */
     public Optional<Productos> findById(Long id) {
-        return productosRepository.findById(id);
+        Productos producto = productoCache.get(id, key -> productosRepository.findById(key).orElse(null));
+        return Optional.ofNullable(producto).map(p -> p.toBuilder().build());
+    }
+
+    /**
+     * Productos por id en el orden pedido. Los que no están en caché se leen con una sola
+     * consulta; los ids que no existen no aparecen en el resultado.
+     */
+    public Map<Long, Productos> findAllByIds(Collection<Long> ids) {
+        Map<Long, Productos> cacheados = productoCache.getAll(ids, faltan -> {
+            Map<Long, Productos> leidos = new HashMap<>();
+            productosRepository.findAllById(faltan).forEach(producto -> leidos.put(producto.getId(), producto));
+            return leidos;
+        });
+
+        Map<Long, Productos> resultado = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Productos producto = cacheados.get(id);
+            if (producto != null) {
+                resultado.put(id, producto.toBuilder().build());
+            }
+        }
+        return resultado;
     }
 
     public Optional<Productos> findByIdAndActivoTrue(Long id) {
-        return productosRepository.findByIdAndActivoTrue(id);
+        return findById(id).filter(producto -> Boolean.TRUE.equals(producto.getActivo()));
     }
 
     @Transactional
     public Productos save(Productos producto) {
         // Si es un producto nuevo, establecer como activo por defecto
-        if (producto.getId() == null) {
+        boolean nuevo = producto.getId() == null;
+        if (nuevo) {
             producto.setActivo(true);
         }
-        return productosRepository.save(producto);
+        Productos saved = productosRepository.save(producto);
+        categoriaService.sincronizar(saved);
+        registrarCambio(saved, nuevo ? ProductoEvento.Tipo.CREADO : ProductoEvento.Tipo.ACTUALIZADO);
+        invalidar(saved.getId());
+        reindexar(saved);
+        return saved;
     }
 
     @Transactional
@@ -54,7 +170,12 @@ public class ProductosService {
                     producto.setDescuentoProducto(productoDetails.getDescuentoProducto());
                     producto.setCategorias(productoDetails.getCategorias());
                     producto.setActivo(productoDetails.getActivo());
-                    return productosRepository.save(producto);
+                    Productos saved = productosRepository.save(producto);
+                    categoriaService.sincronizar(saved);
+                    registrarCambio(saved, ProductoEvento.Tipo.ACTUALIZADO);
+                    invalidar(id);
+                    reindexar(saved);
+                    return saved;
                 });
     }
 
@@ -62,7 +183,15 @@ public class ProductosService {
     public boolean delete(Long id) {
         return productosRepository.findById(id)
                 .map(producto -> {
+                    categoriaService.eliminar(id);
                     productosRepository.delete(producto);
+                    cambiosProductosService.registrar(id, ProductoEvento.Tipo.ELIMINADO, null);
+                    invalidar(id);
+                    trasCommit(() -> {
+                        busquedaProductosService.eliminar(id);
+                        indicePreciosService.eliminar(id);
+                        facetasProductosService.eliminar(id);
+                    });
                     return true;
                 })
                 .orElse(false);
@@ -73,7 +202,11 @@ public class ProductosService {
         return productosRepository.findById(id)
                 .map(producto -> {
                     producto.setActivo(false);
-                    return productosRepository.save(producto);
+                    Productos saved = productosRepository.save(producto);
+                    registrarCambio(saved, ProductoEvento.Tipo.ACTUALIZADO);
+                    invalidar(id);
+                    reindexar(saved);
+                    return saved;
                 });
     }
 
@@ -82,12 +215,22 @@ public class ProductosService {
         return productosRepository.findById(id)
                 .map(producto -> {
                     producto.setActivo(true);
-                    return productosRepository.save(producto);
+                    Productos saved = productosRepository.save(producto);
+                    registrarCambio(saved, ProductoEvento.Tipo.ACTUALIZADO);
+                    invalidar(id);
+                    reindexar(saved);
+                    return saved;
                 });
     }
 
     public List<Productos> findByNombreContaining(String nombre) {
-        return productosRepository.findByNombreProductoContainingIgnoreCase(nombre);
+        return productosRepository.findByNombreProductoContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                nombre, 0L, maxResultados);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductosDTO> findByNombreContainingDTO(String nombre) {
+        return productosRepository.findDTOPaginaPorNombre(nombre, 0L, maxResultados);
     }
 
     public List<Productos> findByNombreContainingAndActivoTrue(String nombre) {
@@ -95,11 +238,67 @@ public class ProductosService {
     }
 
     public List<Productos> findByPrecioRange(Double minPrecio, Double maxPrecio) {
-        return productosRepository.findByPrecioProductoBetween(minPrecio, maxPrecio);
+        if (indicePreciosService.isListo()) {
+            return productosPorIds(indicePreciosService.buscarRango(minPrecio, maxPrecio, false, maxResultados.max()));
+        }
+        return productosRepository.findPaginaPorPrecio(false, minPrecio, maxPrecio,
+                -Double.MAX_VALUE, 0L, maxResultados);
     }
 
     public List<Productos> findByPrecioRangeAndActivoTrue(Double minPrecio, Double maxPrecio) {
-        return productosRepository.findByPrecioProductoBetweenAndActivoTrue(minPrecio, maxPrecio);
+        if (indicePreciosService.isListo()) {
+            return productosPorIds(indicePreciosService.buscarRango(minPrecio, maxPrecio, true, maxResultados.max()));
+        }
+        return productosRepository.findPaginaPorPrecio(true, minPrecio, maxPrecio,
+                -Double.MAX_VALUE, 0L, maxResultados);
+    }
+
+    /**
+     * Productos activos con precio mayor que el indicado, del más barato al más caro.
+     */
+    public List<Productos> findMasCarosQue(Double precio) {
+        if (indicePreciosService.isListo()) {
+            return productosPorIds(indicePreciosService.buscarMayoresQue(precio, true, maxResultados.max()));
+        }
+        return productosRepository.findPaginaPorPrecio(true, Math.nextUp(precio), Double.MAX_VALUE,
+                -Double.MAX_VALUE, 0L, maxResultados);
+    }
+
+    /**
+     * Siguiente bloque de productos ordenados por id, a partir del último id entregado.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductosDTO> findPaginaPorId(boolean soloActivos, long despuesDeId, int limite) {
+        return productosRepository.findDTOPaginaPorId(soloActivos, despuesDeId, Limit.of(limite));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductosDTO> findPaginaPorNombre(String nombre, long despuesDeId, int limite) {
+        return productosRepository.findDTOPaginaPorNombre(nombre, despuesDeId, Limit.of(limite));
+    }
+
+    /**
+     * Siguiente bloque ordenado por (precio, id); el id desempata productos con el mismo precio.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductosDTO> findPaginaPorPrecio(boolean soloActivos, double minPrecio, double maxPrecio,
+                                                  double despuesDePrecio, long despuesDeId, int limite) {
+        return productosRepository.findDTOPaginaPorPrecio(soloActivos, minPrecio, maxPrecio,
+                despuesDePrecio, despuesDeId, Limit.of(limite));
+    }
+
+    /**
+     * Ids de los productos que coinciden con la consulta, de más a menos relevante. Mientras
+     * el índice de búsqueda se construye se recurre a la búsqueda por nombre en la base de datos.
+     */
+    public List<Long> buscarIds(String consulta, boolean soloActivos) {
+        if (busquedaProductosService.isListo()) {
+            return busquedaProductosService.buscar(consulta, soloActivos);
+        }
+        var productos = soloActivos
+                ? findByNombreContainingAndActivoTrue(consulta)
+                : findByNombreContaining(consulta);
+        return productos.stream().map(Productos::getId).toList();
     }
 
     public boolean existsById(Long id) {
@@ -119,7 +318,11 @@ public class ProductosService {
         return productosRepository.findById(id)
                 .map(producto -> {
                     producto.setPrecioProducto(nuevoPrecio);
-                    return productosRepository.save(producto);
+                    Productos saved = productosRepository.save(producto);
+                    registrarCambio(saved, ProductoEvento.Tipo.ACTUALIZADO);
+                    invalidar(id);
+                    reindexar(saved);
+                    return saved;
                 });
     }
 
@@ -131,7 +334,91 @@ public class ProductosService {
                     Double descuento = precioActual * (porcentajeDescuento / 100);
                     producto.setDescuentoProducto(descuento);
                     producto.setPrecioProducto(precioActual - descuento);
-                    return productosRepository.save(producto);
+                    Productos saved = productosRepository.save(producto);
+                    registrarCambio(saved, ProductoEvento.Tipo.ACTUALIZADO);
+                    invalidar(id);
+                    reindexar(saved);
+                    return saved;
                 });
     }
-}
\ No newline at end of file
+
+    private void invalidar(Long id) {
+        productoCache.invalidate(id);
+        invalidarCatalogo();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    productoCache.invalidate(id);
+                    invalidarCatalogo();
+                }
+            });
+        }
+    }
+
+    /**
+     * Tras una actualización por SQL de varios productos: invalida sus entradas y el catálogo
+     * una sola vez y actualiza los índices con las filas recién leídas.
+     */
+    public void refrescarLote(Collection<Long> ids) {
+        productoCache.invalidateAll(ids);
+        invalidarCatalogo();
+        for (Productos producto : productosRepository.findAllById(ids)) {
+            indicePreciosService.actualizar(producto);
+            facetasProductosService.actualizar(producto);
+        }
+    }
+
+    private List<Productos> productosPorIds(List<Long> ids) {
+        return new ArrayList<>(findAllByIds(ids).values());
+    }
+
+    private void registrarCambio(Productos producto, ProductoEvento.Tipo tipo) {
+        // La versión se incrementa al hacer flush; el evento debe llevar la nueva
+        productosRepository.flush();
+        cambiosProductosService.registrar(producto.getId(), tipo, producto.getVersion());
+    }
+
+    private void reindexar(Productos producto) {
+        Productos copia = producto.toBuilder().build();
+        trasCommit(() -> {
+            busquedaProductosService.indexar(copia);
+            indicePreciosService.actualizar(copia);
+            facetasProductosService.actualizar(copia);
+        });
+    }
+
+    private void trasCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private synchronized void publicarCatalogo(long version, List<Productos> productos) {
+        if (versionCatalogo.get() == version) {
+            catalogoActivo = productos;
+        }
+    }
+
+    private synchronized void invalidarCatalogo() {
+        versionCatalogo.incrementAndGet();
+        catalogoActivo = null;
+    }
+
+    // Aproximación en bytes: cabecera del objeto y campos fijos más el texto
+    private static int pesoAproximado(Long id, Productos producto) {
+        return 128 + longitud(producto.getNombreProducto()) + longitud(producto.getDescripcionProducto())
+                + longitud(producto.getImageProducto()) + longitud(producto.getCategorias());
+    }
+
+    private static int longitud(String valor) {
+        return valor == null ? 0 : valor.length();
+    }
+}
@@ -0,0 +1,115 @@
+package com.levelup.productos.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Índice invertido término → documentos con un peso por aparición. No es thread-safe: quien
+ * lo use debe sincronizar lecturas y escrituras.
+ * <p>
+ * La relevancia de un documento es la suma, para cada término de la consulta, de su peso
+ * por el idf del término, de modo que las palabras raras cuentan más que las frecuentes.
+ * El último término de la consulta se trata como prefijo para poder buscar mientras se escribe.
+ */
+public class IndiceInvertido {
+
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> terminosPorDocumento = new HashMap<>();
+
+    public void indexar(long id, Map<String, Float> pesos) {
+        eliminar(id);
+        if (pesos.isEmpty()) {
+            return;
+        }
+        terminosPorDocumento.put(id, pesos);
+        pesos.forEach((termino, peso) -> postings.computeIfAbsent(termino, t -> new HashMap<>()).put(id, peso));
+    }
+
+    public void eliminar(long id) {
+        Map<String, Float> anteriores = terminosPorDocumento.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (String termino : anteriores.keySet()) {
+            Map<Long, Float> documentos = postings.get(termino);
+            if (documentos != null) {
+                documentos.remove(id);
+                if (documentos.isEmpty()) {
+                    postings.remove(termino);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return terminosPorDocumento.size();
+    }
+
+    /**
+     * Ids de los documentos que contienen todos los términos, de más a menos relevante.
+     */
+    public List<Long> buscar(List<String> terminos, LongPredicate filtro) {
+        if (terminos.isEmpty()) {
+            return List.of();
+        }
+        int total = Math.max(1, terminosPorDocumento.size());
+        Map<Long, Float> acumulado = null;
+        for (int i = 0; i < terminos.size(); i++) {
+            String termino = terminos.get(i);
+            Map<String, Map<Long, Float>> coincidencias = i == terminos.size() - 1
+                    ? postings.subMap(termino, true, termino + Character.MAX_VALUE, false)
+                    : exacto(termino);
+
+            Map<Long, Float> puntuaciones = new HashMap<>();
+            coincidencias.values().forEach(documentos -> {
+                float idf = (float) Math.log(1 + (double) total / documentos.size());
+                documentos.forEach((id, peso) -> {
+                    // Con varias expansiones del prefijo cuenta la mejor, no la suma
+                    if (mejora(puntuaciones, id, peso * idf)) {
+                        puntuaciones.put(id, peso * idf);
+                    }
+                });
+            });
+
+            if (acumulado == null) {
+                acumulado = puntuaciones;
+            } else {
+                Map<Long, Float> interseccion = new HashMap<>();
+                for (Map.Entry<Long, Float> entrada : acumulado.entrySet()) {
+                    Float puntuacion = puntuaciones.get(entrada.getKey());
+                    if (puntuacion != null) {
+                        interseccion.put(entrada.getKey(), entrada.getValue() + puntuacion);
+                    }
+                }
+                acumulado = interseccion;
+            }
+            if (acumulado.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Map.Entry<Long, Float>> resultado = new ArrayList<>(acumulado.size());
+        for (Map.Entry<Long, Float> entrada : acumulado.entrySet()) {
+            if (filtro.test(entrada.getKey())) {
+                resultado.add(entrada);
+            }
+        }
+        resultado.sort(Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return resultado.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private Map<String, Map<Long, Float>> exacto(String termino) {
+        Map<Long, Float> documentos = postings.get(termino);
+        return documentos == null ? Map.of() : Map.of(termino, documentos);
+    }
+
+    private static boolean mejora(Map<Long, Float> puntuaciones, Long id, float puntuacion) {
+        Float actual = puntuaciones.get(id);
+        return actual == null || actual < puntuacion;
+    }
+}
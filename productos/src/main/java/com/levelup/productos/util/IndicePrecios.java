@@ -0,0 +1,207 @@
+package com.levelup.productos.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice de precios inmutable: arrays paralelos de precio e id ordenados por (precio, id) y
+ * un bit de activo por posición. Un rango de precios se resuelve con dos búsquedas binarias
+ * y se recorre de forma secuencial, sin objetos por elemento.
+ * <p>
+ * Los cambios no modifican el índice: se acumulan aparte y {@link #fusionar(Map)} genera
+ * uno nuevo en una sola pasada.
+ */
+public final class IndicePrecios {
+
+    private static final IndicePrecios VACIO = new Builder(0).build();
+
+    private final double[] precios;
+    private final long[] ids;
+    private final BitSet activos;
+    private final int size;
+
+    private IndicePrecios(double[] precios, long[] ids, BitSet activos, int size) {
+        this.precios = precios;
+        this.ids = ids;
+        this.activos = activos;
+        this.size = size;
+    }
+
+    public static IndicePrecios vacio() {
+        return VACIO;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Primera posición con precio mayor o igual que {@code valor}.
+     */
+    public int desde(double valor) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (precios[mid] < valor) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Primera posición con precio estrictamente mayor que {@code valor}.
+     */
+    public int hasta(double valor) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (precios[mid] <= valor) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public double precio(int posicion) {
+        return precios[posicion];
+    }
+
+    public long id(int posicion) {
+        return ids[posicion];
+    }
+
+    public boolean activo(int posicion) {
+        return activos.get(posicion);
+    }
+
+    /**
+     * Índice nuevo con los cambios aplicados: cada cambio sustituye a la entrada que tuviera
+     * ese id, y los eliminados desaparecen.
+     */
+    public IndicePrecios fusionar(Map<Long, Cambio> cambios) {
+        List<Cambio> nuevos = ordenados(cambios.values());
+        Builder builder = new Builder(size + nuevos.size());
+        int i = 0;
+        int j = 0;
+        while (i < size || j < nuevos.size()) {
+            if (i < size && cambios.containsKey(ids[i])) {
+                i++;
+                continue;
+            }
+            if (j >= nuevos.size()
+                    || (i < size && comparar(precios[i], ids[i], nuevos.get(j).precio, nuevos.get(j).id) < 0)) {
+                builder.agregar(ids[i], precios[i], activos.get(i));
+                i++;
+            } else {
+                Cambio cambio = nuevos.get(j++);
+                builder.agregar(cambio.id, cambio.precio, cambio.activo);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Cambios no eliminados ordenados igual que el índice.
+     */
+    public static List<Cambio> ordenados(Collection<Cambio> cambios) {
+        List<Cambio> resultado = new ArrayList<>(cambios.size());
+        for (Cambio cambio : cambios) {
+            if (!cambio.eliminado) {
+                resultado.add(cambio);
+            }
+        }
+        resultado.sort((a, b) -> comparar(a.precio, a.id, b.precio, b.id));
+        return resultado;
+    }
+
+    public static int comparar(double precio1, long id1, double precio2, long id2) {
+        int porPrecio = Double.compare(precio1, precio2);
+        return porPrecio != 0 ? porPrecio : Long.compare(id1, id2);
+    }
+
+    /**
+     * Acumula entradas ya ordenadas por (precio, id), p.ej. leídas con ORDER BY.
+     */
+    public static final class Builder {
+        private double[] precios;
+        private long[] ids;
+        private final BitSet activos = new BitSet();
+        private int size;
+
+        public Builder(int capacidad) {
+            precios = new double[Math.max(capacidad, 16)];
+            ids = new long[precios.length];
+        }
+
+        public Builder agregar(long id, double precio, boolean activo) {
+            if (size > 0 && comparar(precios[size - 1], ids[size - 1], precio, id) >= 0) {
+                throw new IllegalArgumentException("Las entradas deben llegar ordenadas por precio e id");
+            }
+            if (size == precios.length) {
+                precios = Arrays.copyOf(precios, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            precios[size] = precio;
+            ids[size] = id;
+            activos.set(size, activo);
+            size++;
+            return this;
+        }
+
+        public IndicePrecios build() {
+            return new IndicePrecios(precios, ids, activos, size);
+        }
+    }
+
+    /**
+     * Nuevo precio o estado de un producto, o su eliminación del índice (borrado o sin precio).
+     */
+    public static final class Cambio {
+        private final long id;
+        private final double precio;
+        private final boolean activo;
+        private final boolean eliminado;
+
+        private Cambio(long id, double precio, boolean activo, boolean eliminado) {
+            this.id = id;
+            this.precio = precio;
+            this.activo = activo;
+            this.eliminado = eliminado;
+        }
+
+        public static Cambio actualizado(long id, double precio, boolean activo) {
+            return new Cambio(id, precio, activo, false);
+        }
+
+        public static Cambio eliminado(long id) {
+            return new Cambio(id, 0, false, true);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getPrecio() {
+            return precio;
+        }
+
+        public boolean isActivo() {
+            return activo;
+        }
+
+        public boolean isEliminado() {
+            return eliminado;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.levelup.productos.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Divide un texto en términos de búsqueda: minúsculas, sin acentos ("Cámara" y "camara"
+ * son el mismo término) y sin las palabras vacías más comunes del español.
+ */
+public final class Tokenizador {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9ñ]+");
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "de", "del", "la", "las", "el", "los", "lo", "un", "una", "unos", "unas",
+            "y", "o", "e", "en", "con", "sin", "para", "por", "al", "a", "su", "sus");
+
+    private Tokenizador() {
+    }
+
+    public static List<String> tokens(String texto) {
+        List<String> tokens = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return tokens;
+        }
+        for (String token : SEPARADORES.split(normalizar(texto))) {
+            if (!token.isEmpty() && !PALABRAS_VACIAS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public static String normalizar(String texto) {
+        String minusculas = texto.toLowerCase(Locale.ROOT);
+        // La ñ se conserva: "año" y "ano" no son la misma palabra
+        String sinAcentos = MARCAS.matcher(Normalizer.normalize(minusculas.replace('ñ', '\u0001'), Normalizer.Form.NFD))
+                .replaceAll("");
+        return sinAcentos.replace('\u0001', 'ñ');
+    }
+}
@@ -0,0 +1,66 @@
+package com.levelup.productos.benchmark;
+
+import com.levelup.productos.model.Productos;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Catálogo de productos en H2 (modo MySQL) para los benchmarks. El esquema lo genera
+ * Hibernate a partir de {@link Productos}, con los mismos índices que en MySQL.
+ */
+final class CatalogoH2 {
+
+    static final double PRECIO_MAXIMO = 500_000;
+
+    private CatalogoH2() {
+    }
+
+    static EntityManagerFactory crear(String nombre, int productos) {
+        EntityManagerFactory emf = new PersistenceConfiguration(nombre)
+                .managedClass(Productos.class)
+                .property(PersistenceConfiguration.JDBC_URL, "jdbc:h2:mem:" + nombre + ";MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .property(PersistenceConfiguration.JDBC_USER, "sa")
+                .property(PersistenceConfiguration.JDBC_PASSWORD, "")
+                .property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "drop-and-create")
+                .property("hibernate.jdbc.batch_size", "1000")
+                .createEntityManagerFactory();
+
+        SplittableRandom random = new SplittableRandom(42);
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 1; i <= productos; i++) {
+            em.persist(Productos.builder()
+                    .nombreProducto("Producto " + i)
+                    .descripcionProducto("Descripción del producto " + i + " con algo de texto de relleno")
+                    .imageProducto("https://cdn.levelup.cl/productos/" + i + ".jpg")
+                    .precioProducto(Math.round(random.nextDouble(PRECIO_MAXIMO) * 100) / 100.0)
+                    .descuentoProducto(random.nextInt(4) == 0 ? 10.0 : 0.0)
+                    .activo(random.nextInt(10) != 0)
+                    .categorias("Consolas, Accesorios")
+                    .build());
+            if (i % 1000 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.getTransaction().commit();
+        em.close();
+        return emf;
+    }
+
+    static <T> T enTransaccion(EntityManagerFactory emf, Function<EntityManager, T> consulta) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T resultado = consulta.apply(em);
+            em.getTransaction().commit();
+            return resultado;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.levelup.productos.benchmark;
+
+import com.levelup.productos.model.Productos;
+import com.levelup.productos.util.IndicePrecios;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta por rango de precio sobre un millón de productos en H2 (modo MySQL, con
+ * {@code idx_productos_precio_id}): las consultas de ProductosRepository frente a IndicePrecios.
+ * findByPrecioProductoBetween devuelve todo el rango; findPaginaPorPrecio y el índice se
+ * limitan a una página de activos. {@code indicePreciosConCarga} añade la lectura por id de
+ * las entidades, que es lo que hace ProductosService cuando no están en la caché.
+ * Los resultados dependen de la JVM y la máquina; hay que ejecutarlo antes de dar cifras.
+ * <p>
+ * Ejecutar con {@code mvn test-compile} y luego la clase {@code main} desde el IDE,
+ * o con {@code java -cp target/test-classes:<classpath> com.levelup.productos.benchmark.IndicePreciosBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class IndicePreciosBenchmark {
+
+    private static final int PRODUCTOS = 1_000_000;
+    // productos.listado.max-resultados por defecto
+    private static final int LIMITE = 1000;
+
+    // Fracción del catálogo que cae dentro del rango consultado
+    @Param({"0.0001", "0.01"})
+    public double selectividad;
+
+    private EntityManagerFactory emf;
+    private IndicePrecios indice;
+    private double min;
+    private double max;
+
+    @Setup
+    public void setup() {
+        emf = CatalogoH2.crear("indice_precios", PRODUCTOS);
+
+        // Misma lectura ordenada que IndicePreciosService al arrancar
+        indice = CatalogoH2.enTransaccion(emf, em -> {
+            IndicePrecios.Builder builder = new IndicePrecios.Builder(PRODUCTOS);
+            em.createQuery("SELECT p.id, p.precioProducto, p.activo FROM Productos p "
+                            + "WHERE p.precioProducto IS NOT NULL ORDER BY p.precioProducto, p.id", Object[].class)
+                    .getResultStream()
+                    .forEach(fila -> builder.agregar((Long) fila[0], (Double) fila[1], (Boolean) fila[2]));
+            return builder.build();
+        });
+
+        min = CatalogoH2.PRECIO_MAXIMO / 2;
+        max = min + CatalogoH2.PRECIO_MAXIMO * selectividad;
+    }
+
+    @TearDown
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public List<Productos> findByPrecioProductoBetween() {
+        return CatalogoH2.enTransaccion(emf, em -> em
+                .createQuery("SELECT p FROM Productos p WHERE p.precioProducto BETWEEN :minPrecio AND :maxPrecio",
+                        Productos.class)
+                .setParameter("minPrecio", min)
+                .setParameter("maxPrecio", max)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<Productos> findPaginaPorPrecio() {
+        return CatalogoH2.enTransaccion(emf, em -> em
+                .createQuery("SELECT p FROM Productos p WHERE (:soloActivos = false OR p.activo = true) "
+                        + "AND p.precioProducto BETWEEN :minPrecio AND :maxPrecio "
+                        + "AND (p.precioProducto > :precio OR (p.precioProducto = :precio AND p.id > :id)) "
+                        + "ORDER BY p.precioProducto ASC, p.id ASC", Productos.class)
+                .setParameter("soloActivos", true)
+                .setParameter("minPrecio", min)
+                .setParameter("maxPrecio", max)
+                .setParameter("precio", -Double.MAX_VALUE)
+                .setParameter("id", 0L)
+                .setMaxResults(LIMITE)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<Long> indicePrecios() {
+        return idsActivos();
+    }
+
+    @Benchmark
+    public List<Productos> indicePreciosConCarga() {
+        List<Long> ids = idsActivos();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return CatalogoH2.enTransaccion(emf, em -> em
+                .createQuery("SELECT p FROM Productos p WHERE p.id IN :ids", Productos.class)
+                .setParameter("ids", ids)
+                .getResultList());
+    }
+
+    private List<Long> idsActivos() {
+        List<Long> resultado = new ArrayList<>();
+        int fin = indice.hasta(max);
+        for (int posicion = indice.desde(min); posicion < fin && resultado.size() < LIMITE; posicion++) {
+            if (indice.activo(posicion)) {
+                resultado.add(indice.id(posicion));
+            }
+        }
+        return resultado;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IndicePreciosBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.levelup.productos.benchmark;
+
+import com.levelup.productos.dto.ProductosDTO;
+import com.levelup.productos.mapper.ProductosMapper;
+import com.levelup.productos.model.Productos;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Listado de productos sobre un catálogo grande en H2 (modo MySQL): entidades gestionadas
+ * pasadas por ProductosMapper, que es lo que hacían /list y los endpoints paginados, frente a
+ * la proyección directa a ProductosDTO de ProductosRepository.
+ * El GCProfiler da los bytes asignados por operación ({@code gc.alloc.rate.norm}). Los
+ * resultados dependen de la JVM y la máquina; hay que ejecutarlo antes de dar cifras.
+ * <p>
+ * Ejecutar igual que {@link IndicePreciosBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ProductosProyeccionBenchmark {
+
+    private static final int PRODUCTOS = 200_000;
+    private static final String CONDICION = " WHERE p.id > :id ORDER BY p.id ASC";
+
+    // 50 es la página por defecto, 1000 el tope de los listados sin paginar
+    @Param({"50", "1000"})
+    public int tamanio;
+
+    private EntityManagerFactory emf;
+    private ProductosMapper mapper;
+    private long desdeId;
+
+    @Setup
+    public void setup() {
+        emf = CatalogoH2.crear("productos", PRODUCTOS);
+        mapper = new ProductosMapper();
+        // Página a mitad del catálogo, como un cliente que ya ha avanzado con el cursor
+        desdeId = PRODUCTOS / 2;
+    }
+
+    @TearDown
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public List<ProductosDTO> entidadesConMapper() {
+        return enTransaccion(em -> mapper.toDTOList(em
+                .createQuery("SELECT p FROM Productos p" + CONDICION, Productos.class)
+                .setParameter("id", desdeId)
+                .setMaxResults(tamanio)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<ProductosDTO> proyeccionDTO() {
+        return enTransaccion(em -> {
+            // Equivale a @Transactional(readOnly = true) en ProductosService
+            em.unwrap(Session.class).setDefaultReadOnly(true);
+            return em.createQuery("SELECT new com.levelup.productos.dto.ProductosDTO(p.id, p.nombreProducto, "
+                            + "p.descripcionProducto, p.imageProducto, p.precioProducto, p.descuentoProducto, "
+                            + "p.activo, p.categorias, p.fechaActualizacion, p.version) FROM Productos p" + CONDICION,
+                            ProductosDTO.class)
+                    .setParameter("id", desdeId)
+                    .setMaxResults(tamanio)
+                    .getResultList();
+        });
+    }
+
+    private <T> T enTransaccion(Function<EntityManager, T> consulta) {
+        return CatalogoH2.enTransaccion(emf, consulta);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductosProyeccionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
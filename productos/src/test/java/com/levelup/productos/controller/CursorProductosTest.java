@@ -0,0 +1,54 @@
+package com.levelup.productos.controller;
+
+import com.levelup.productos.dto.ProductosDTO;
+import com.levelup.productos.exception.CursorInvalidoException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorProductosTest {
+
+    @Test
+    void roundTripKeepsPriceAndId() {
+        ProductosDTO ultimo = ProductosDTO.builder().id(42L).precioProducto(19.99).build();
+
+        String valor = CursorProductos.despuesDe(CursorProductos.ORDEN_PRECIO, ultimo).codificar();
+        CursorProductos cursor = CursorProductos.leer(valor, CursorProductos.ORDEN_PRECIO);
+
+        assertEquals(19.99, cursor.getPrecio());
+        assertEquals(42L, cursor.getId());
+        assertFalse(valor.contains("="));
+    }
+
+    @Test
+    void missingCursorStartsFromBeginning() {
+        CursorProductos cursor = CursorProductos.leer(null, CursorProductos.ORDEN_PRECIO);
+
+        assertEquals(0L, cursor.getId());
+        assertEquals(-Double.MAX_VALUE, cursor.getPrecio());
+        assertEquals(0L, CursorProductos.leer(" ", CursorProductos.ORDEN_ID).getId());
+    }
+
+    @Test
+    void cursorFromAnotherListingIsRejected() {
+        String valor = CursorProductos.despuesDe(CursorProductos.ORDEN_ID,
+                ProductosDTO.builder().id(5L).precioProducto(1.0).build()).codificar();
+
+        assertThrows(CursorInvalidoException.class, () -> CursorProductos.leer(valor, CursorProductos.ORDEN_PRECIO));
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        assertThrows(CursorInvalidoException.class, () -> CursorProductos.leer("no es base64!", CursorProductos.ORDEN_ID));
+        assertThrows(CursorInvalidoException.class, () -> CursorProductos.leer(codificar("id:1.0"), CursorProductos.ORDEN_ID));
+        assertThrows(CursorInvalidoException.class, () -> CursorProductos.leer(codificar("id:abc:5"), CursorProductos.ORDEN_ID));
+        assertThrows(CursorInvalidoException.class, () -> CursorProductos.leer(codificar("id:1.0:5x"), CursorProductos.ORDEN_ID));
+    }
+
+    private static String codificar(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
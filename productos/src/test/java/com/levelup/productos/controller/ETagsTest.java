@@ -0,0 +1,67 @@
+package com.levelup.productos.controller;
+
+import com.levelup.productos.dto.ProductosDTO;
+import com.levelup.productos.model.Productos;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void productETagChangesWithVersion() {
+        assertEquals("\"7-2\"", ETags.deProducto(producto(7L, 2L)));
+        assertEquals("\"7-0\"", ETags.deProducto(producto(7L, null)));
+        assertNotEquals(ETags.deProducto(producto(7L, 2L)), ETags.deProducto(producto(7L, 3L)));
+    }
+
+    @Test
+    void listETagDependsOnOrderAndMatchesDtoProjection() {
+        List<Productos> productos = List.of(producto(1L, 1L), producto(2L, 5L));
+
+        assertEquals(ETags.deProductos(productos), ETags.deDTOs(List.of(dto(1L, 1L), dto(2L, 5L))));
+        assertNotEquals(ETags.deProductos(productos), ETags.deProductos(List.of(producto(2L, 5L), producto(1L, 1L))));
+        assertNotEquals(ETags.deProductos(productos), ETags.deProductos(List.of(producto(1L, 1L), producto(2L, 6L))));
+    }
+
+    @Test
+    void batchETagIncludesMissingIds() {
+        Map<Long, Productos> encontrados = Map.of(1L, producto(1L, 1L));
+
+        assertNotEquals(ETags.deLote(List.of(1L), encontrados), ETags.deLote(List.of(1L, 9L), encontrados));
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        String etag = "\"7-2\"";
+
+        assertTrue(ETags.noModificado("\"7-2\"", etag));
+        assertTrue(ETags.noModificado("W/\"7-2\"", etag));
+        assertTrue(ETags.noModificado("\"1-1\", \"7-2\"", etag));
+        assertTrue(ETags.noModificado("*", etag));
+        assertFalse(ETags.noModificado("\"7-1\"", etag));
+        assertFalse(ETags.noModificado(null, etag));
+    }
+
+    @Test
+    void ifMatchUsesStrongComparison() {
+        String etag = "\"7-2\"";
+
+        assertTrue(ETags.cumpleIfMatch(null, etag));
+        assertTrue(ETags.cumpleIfMatch("\"7-2\"", etag));
+        assertTrue(ETags.cumpleIfMatch("*", etag));
+        assertFalse(ETags.cumpleIfMatch("W/\"7-2\"", etag));
+        assertFalse(ETags.cumpleIfMatch("\"7-1\"", etag));
+    }
+
+    private static Productos producto(Long id, Long version) {
+        return Productos.builder().id(id).version(version).build();
+    }
+
+    private static ProductosDTO dto(Long id, Long version) {
+        return ProductosDTO.builder().id(id).version(version).build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.levelup.productos.controller;
+
+import com.levelup.productos.dto.ProductosDTO;
+import com.levelup.productos.mapper.ProductosMapper;
+import com.levelup.productos.model.Productos;
+import com.levelup.productos.service.CambiosProductosService;
+import com.levelup.productos.service.FacetasProductosService;
+import com.levelup.productos.service.PreciosMasivosService;
+import com.levelup.productos.service.ProductosExportService;
+import com.levelup.productos.service.ProductosService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductosControllerETagTest {
+
+    private final ProductosService productosService = mock(ProductosService.class);
+    private ProductosController controller;
+    private Productos producto;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ProductosController(productosService, new ProductosMapper(),
+                mock(ProductosExportService.class), mock(FacetasProductosService.class),
+                mock(PreciosMasivosService.class), mock(CambiosProductosService.class));
+        producto = Productos.builder().id(7L).nombreProducto("Teclado").precioProducto(10.0)
+                .activo(true).categorias("Periféricos").version(2L).build();
+        when(productosService.findById(7L)).thenReturn(Optional.of(producto));
+    }
+
+    @Test
+    void getWithCurrentETagAnswers304WithoutBody() {
+        ResponseEntity<ProductosDTO> response = controller.obtenerProductoPorId(7L, "\"7-2\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"7-2\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void getWithStaleETagAnswers200() {
+        ResponseEntity<ProductosDTO> response = controller.obtenerProductoPorId(7L, "\"7-1\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"7-2\"", response.getHeaders().getETag());
+        assertEquals(2L, response.getBody().getVersion());
+    }
+
+    @Test
+    void putWithStaleIfMatchAnswers412AndDoesNotWrite() {
+        ResponseEntity<ProductosDTO> response = controller.actualizarProductoCompleto(7L, "\"7-1\"", cambios());
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        verify(productosService, never()).save(any());
+        assertEquals("Teclado", producto.getNombreProducto());
+    }
+
+    @Test
+    void putWithWeakIfMatchAnswers412() {
+        ResponseEntity<ProductosDTO> response = controller.actualizarProductoCompleto(7L, "W/\"7-2\"", cambios());
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        verify(productosService, never()).save(any());
+    }
+
+    @Test
+    void putWithCurrentIfMatchWritesAndReturnsNewETag() {
+        when(productosService.save(producto)).thenAnswer(invocation -> {
+            producto.setVersion(3L);
+            return producto;
+        });
+
+        ResponseEntity<ProductosDTO> response = controller.actualizarProductoCompleto(7L, "\"7-2\"", cambios());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"7-3\"", response.getHeaders().getETag());
+        assertEquals("Teclado mecánico", response.getBody().getNombreProducto());
+    }
+
+    @Test
+    void putOnMissingProductAnswers404() {
+        when(productosService.findById(8L)).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, controller.actualizarProductoCompleto(8L, "\"8-0\"", cambios()).getStatusCode());
+    }
+
+    private static ProductosDTO cambios() {
+        return ProductosDTO.builder().nombreProducto("Teclado mecánico").precioProducto(12.0)
+                .imagenProducto("teclado.png").categorias("Periféricos").build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.model.ProductoEvento;
+import com.levelup.productos.repository.ProductoEventoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CambiosProductosServiceTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2024, 5, 1, 12, 0);
+    private static final LocalDateTime LIMITE_HUECO = AHORA.minusSeconds(2);
+    private static final long ULTIMA = 1000;
+
+    private ProductoEventoRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductoEventoRepository.class);
+        when(repository.findUltimaSecuencia()).thenReturn(ULTIMA);
+        when(repository.findPrimeraSecuencia()).thenReturn(1L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void laggingSubscriberReadsFromItsOwnSequence() {
+        CambiosProductosService service = service(Runnable::run);
+        LocalDateTime antes = LocalDateTime.now().minusMinutes(1);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(List.of(evento(1, antes), evento(2, antes), evento(3, antes)));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(ULTIMA), any()))
+                .thenReturn(List.of(evento(ULTIMA + 1, antes)));
+        service.suscribir(0L);
+        service.suscribir(null);
+
+        service.publicar();
+        service.publicar();
+
+        // El atrasado no retiene al que está al día: cada uno avanza desde lo que ya recibió
+        verify(repository).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class));
+        verify(repository).findByIdGreaterThanOrderByIdAsc(eq(3L), any(Limit.class));
+        verify(repository).findByIdGreaterThanOrderByIdAsc(eq(ULTIMA), any(Limit.class));
+        verify(repository).findByIdGreaterThanOrderByIdAsc(eq(ULTIMA + 1), any(Limit.class));
+    }
+
+    @Test
+    void subscribersAtSameSequenceShareOneRead() {
+        CambiosProductosService service = service(Runnable::run);
+        service.suscribir(null);
+        service.suscribir(null);
+        service.suscribir(null);
+
+        service.publicar();
+
+        verify(repository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(ULTIMA), any(Limit.class));
+    }
+
+    @Test
+    void sendsRunOnExecutorAndBusySubscriberIsSkipped() {
+        List<Runnable> pendientes = new ArrayList<>();
+        CambiosProductosService service = service(pendientes::add);
+        LocalDateTime antes = LocalDateTime.now().minusMinutes(1);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(ULTIMA), any()))
+                .thenReturn(List.of(evento(ULTIMA + 1, antes)));
+        service.suscribir(null);
+
+        service.publicar();
+        // El envío sigue encolado: no se vuelve a leer ni se encola otro para el mismo suscriptor
+        service.publicar();
+        service.latido();
+
+        assertEquals(1, pendientes.size());
+        verify(repository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(ULTIMA), any(Limit.class));
+
+        pendientes.get(0).run();
+        service.publicar();
+
+        verify(repository).findByIdGreaterThanOrderByIdAsc(eq(ULTIMA + 1), any(Limit.class));
+    }
+
+    @Test
+    void consecutiveEventsArePublished() {
+        List<ProductoEvento> lote = List.of(evento(11, AHORA), evento(12, AHORA), evento(13, AHORA));
+
+        assertEquals(List.of(11L, 12L, 13L), ids(CambiosProductosService.publicables(lote, 10, LIMITE_HUECO)));
+    }
+
+    @Test
+    void recentGapStopsPublication() {
+        // La secuencia 12 puede ser una transacción que aún no ha hecho commit
+        List<ProductoEvento> lote = List.of(evento(11, AHORA), evento(13, AHORA), evento(14, AHORA));
+
+        assertEquals(List.of(11L), ids(CambiosProductosService.publicables(lote, 10, LIMITE_HUECO)));
+    }
+
+    @Test
+    void gapRightAfterBaseHoldsEverything() {
+        List<ProductoEvento> lote = List.of(evento(12, AHORA));
+
+        assertTrue(CambiosProductosService.publicables(lote, 10, LIMITE_HUECO).isEmpty());
+    }
+
+    @Test
+    void oldGapIsSkipped() {
+        // La secuencia 12 se perdió en un rollback: la 13 lleva más que la espera
+        List<ProductoEvento> lote = List.of(evento(11, AHORA.minusSeconds(10)), evento(13, AHORA.minusSeconds(5)),
+                evento(14, AHORA));
+
+        assertEquals(List.of(11L, 13L, 14L), ids(CambiosProductosService.publicables(lote, 10, LIMITE_HUECO)));
+    }
+
+    @Test
+    void emptyBatchPublishesNothing() {
+        assertTrue(CambiosProductosService.publicables(List.of(), 10, LIMITE_HUECO).isEmpty());
+    }
+
+    private CambiosProductosService service(Executor envios) {
+        return new CambiosProductosService(repository, 500, Duration.ofSeconds(2), Duration.ofDays(7),
+                Duration.ofMinutes(30), envios);
+    }
+
+    private static ProductoEvento evento(long id, LocalDateTime fecha) {
+        return ProductoEvento.builder()
+                .id(id)
+                .productoId(1L)
+                .tipo(ProductoEvento.Tipo.ACTUALIZADO)
+                .version(1L)
+                .fecha(fecha)
+                .build();
+    }
+
+    private static List<Long> ids(List<ProductoEvento> eventos) {
+        return eventos.stream().map(ProductoEvento::getId).toList();
+    }
+}
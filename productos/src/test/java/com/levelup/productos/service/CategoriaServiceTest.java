@@ -0,0 +1,79 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.exception.CategoriaInvalidaException;
+import com.levelup.productos.model.Categoria;
+import com.levelup.productos.model.Productos;
+import com.levelup.productos.repository.CategoriaRepository;
+import com.levelup.productos.repository.ProductoCategoriaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+class CategoriaServiceTest {
+
+    private final CategoriaRepository categoriaRepository = mock(CategoriaRepository.class);
+    private final ProductoCategoriaRepository productoCategoriaRepository = mock(ProductoCategoriaRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CategoriaService service =
+            new CategoriaService(categoriaRepository, productoCategoriaRepository, jdbcTemplate);
+
+    @Test
+    void parsearNormalizesKeysAndKeepsFirstName() {
+        Map<String, String> categorias = CategoriaService.parsear(" Cámaras, fotografía ,camaras,, ");
+
+        assertEquals(Map.of("camaras", "Cámaras", "fotografia", "fotografía"), categorias);
+        assertEquals(List.of("camaras", "fotografia"), List.copyOf(categorias.keySet()));
+        assertTrue(CategoriaService.parsear(null).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sincronizarResolvesAllKeysInOneQuery() {
+        when(categoriaRepository.findByClaveIn(any())).thenReturn(List.of(
+                Categoria.builder().id(10L).clave("camaras").nombre("Cámaras").build(),
+                Categoria.builder().id(11L).clave("fotografia").nombre("Fotografía").build()));
+
+        service.sincronizar(producto("Cámaras, Fotografía"));
+
+        verify(productoCategoriaRepository).deleteByProductoId(5L);
+        verify(categoriaRepository, times(1)).findByClaveIn(Set.of("camaras", "fotografia"));
+        ArgumentCaptor<List<Object[]>> relaciones = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("productos_categorias"), relaciones.capture());
+        assertEquals(List.of(List.of(5L, 10L), List.of(5L, 11L)),
+                relaciones.getValue().stream().map(Arrays::asList).toList());
+    }
+
+    @Test
+    void sincronizarRejectsCategoryLongerThanColumn() {
+        String larga = "x".repeat(Categoria.LONGITUD_MAXIMA + 1);
+
+        assertThrows(CategoriaInvalidaException.class, () -> service.sincronizar(producto("Cámaras, " + larga)));
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(categoriaRepository, never()).findByClaveIn(any());
+    }
+
+    @Test
+    void sincronizarWithoutCategoriesOnlyClearsRelations() {
+        service.sincronizar(producto(" , "));
+
+        verify(productoCategoriaRepository).deleteByProductoId(5L);
+        verifyNoInteractions(categoriaRepository, jdbcTemplate);
+    }
+
+    private static Productos producto(String categorias) {
+        return Productos.builder().id(5L).categorias(categorias).build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.model.Productos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IndicePreciosServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void rangeIsInclusiveAndOrderedByPriceAndId() throws Exception {
+        IndicePreciosService service = construido(100,
+                fila(1, 10, true), fila(2, 20, true), fila(3, 20, false), fila(4, 30, true));
+
+        assertEquals(List.of(2L, 3L, 4L), service.buscarRango(20, 30, false, 10));
+        assertEquals(List.of(2L, 4L), service.buscarRango(20, 30, true, 10));
+        assertEquals(List.of(1L, 2L), service.buscarRango(0, 100, false, 2));
+        assertEquals(List.of(4L), service.buscarMayoresQue(20, false, 10));
+    }
+
+    @Test
+    void pendingChangesOverrideIndexBeforeMerge() throws Exception {
+        IndicePreciosService service = construido(100, fila(1, 10, true), fila(2, 20, true), fila(3, 30, true));
+
+        service.actualizar(producto(1L, 25.0, true));
+        service.actualizar(producto(4L, 15.0, true));
+        service.eliminar(3L);
+
+        assertEquals(List.of(4L, 2L, 1L), service.buscarRango(0, 100, false, 10));
+        assertEquals(List.of(2L, 1L), service.buscarRango(20, 30, false, 10));
+    }
+
+    @Test
+    void productWithoutPriceLeavesTheIndex() throws Exception {
+        IndicePreciosService service = construido(100, fila(1, 10, true), fila(2, 20, true));
+
+        service.actualizar(producto(1L, null, true));
+
+        assertEquals(List.of(2L), service.buscarRango(0, 100, false, 10));
+    }
+
+    @Test
+    void mergedIndexGivesSameResults() throws Exception {
+        IndicePreciosService service = construido(2, fila(1, 10, true), fila(2, 20, true), fila(3, 30, true));
+
+        service.actualizar(producto(1L, 25.0, false));
+        service.eliminar(3L);
+
+        assertEquals(List.of(2L, 1L), service.buscarRango(0, 100, false, 10));
+        assertEquals(List.of(2L), service.buscarRango(0, 100, true, 10));
+    }
+
+    private IndicePreciosService construido(int maxPendientes, ResultSet... filas) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet fila : filas) {
+                handler.processRow(fila);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        IndicePreciosService service = new IndicePreciosService(jdbcTemplate, maxPendientes, new SimpleMeterRegistry());
+        service.construir();
+        assertTrue(service.isListo());
+        return service;
+    }
+
+    private static ResultSet fila(long id, double precio, boolean activo) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(id);
+        when(rs.getDouble(2)).thenReturn(precio);
+        when(rs.getBoolean(3)).thenReturn(activo);
+        return rs;
+    }
+
+    private static Productos producto(Long id, Double precio, boolean activo) {
+        return Productos.builder().id(id).precioProducto(precio).activo(activo).build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.dto.ActualizacionMasivaPreciosDTO;
+import com.levelup.productos.dto.TrabajoMasivoDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PreciosMasivosServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ProductosService productosService = mock(ProductosService.class);
+    private PreciosMasivosService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.detener();
+        }
+    }
+
+    @Test
+    void requiresExactlyOneCriterion() {
+        service = servicio(Duration.ofHours(1));
+
+        assertThrows(IllegalArgumentException.class, () -> service.iniciar(peticion().build()));
+        assertThrows(IllegalArgumentException.class, () -> service.iniciar(peticion()
+                .ids(List.of(1L)).categoria("Cámaras").build()));
+        assertThrows(IllegalArgumentException.class, () -> service.iniciar(peticion()
+                .precioMinimo(10.0).build()));
+        assertThrows(IllegalArgumentException.class, () -> service.iniciar(peticion()
+                .tipo(ActualizacionMasivaPreciosDTO.Tipo.DESCUENTO).valor(150.0).ids(List.of(1L)).build()));
+    }
+
+    @Test
+    void blankCategoryIsIgnoredWhenSelecting() throws Exception {
+        service = servicio(Duration.ofHours(1));
+        when(jdbcTemplate.queryForList(contains("BETWEEN"), eq(Long.class), eq(10.0), eq(20.0)))
+                .thenReturn(List.of(1L, 2L));
+
+        String id = service.iniciar(peticion().categoria(" ").precioMinimo(10.0).precioMaximo(20.0).build()).getId();
+
+        TrabajoMasivoDTO estado = esperarFin(id);
+        assertEquals(TrabajoMasivoDTO.Estado.COMPLETADO, estado.getEstado());
+        assertEquals(2, estado.getProcesados());
+        verify(jdbcTemplate, never()).queryForList(contains("categorias"), eq(Long.class), anyString());
+    }
+
+    @Test
+    void runningJobOutlivesRetentionAndFinishedJobExpires() throws Exception {
+        service = servicio(Duration.ofMillis(50));
+        CountDownLatch empezado = new CountDownLatch(1);
+        CountDownLatch seguir = new CountDownLatch(1);
+        when(jdbcTemplate.queryForList(contains("BETWEEN"), eq(Long.class), eq(10.0), eq(20.0))).thenAnswer(invocation -> {
+            empezado.countDown();
+            seguir.await(5, TimeUnit.SECONDS);
+            return List.of(1L);
+        });
+
+        String id = service.iniciar(peticion().precioMinimo(10.0).precioMaximo(20.0).build()).getId();
+        assertTrue(empezado.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        assertEquals(TrabajoMasivoDTO.Estado.EN_CURSO, service.consultar(id).orElseThrow().getEstado());
+
+        seguir.countDown();
+        long limite = System.currentTimeMillis() + 5000;
+        while (service.consultar(id).isPresent() && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertTrue(service.consultar(id).isEmpty());
+    }
+
+    private PreciosMasivosService servicio(Duration retencion) {
+        return new PreciosMasivosService(jdbcTemplate, mock(TransactionTemplate.class), productosService, 1000, retencion);
+    }
+
+    private TrabajoMasivoDTO esperarFin(String id) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        TrabajoMasivoDTO estado = service.consultar(id).orElseThrow();
+        while (estado.getFin() == null && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+            estado = service.consultar(id).orElseThrow();
+        }
+        return estado;
+    }
+
+    private static ActualizacionMasivaPreciosDTO.ActualizacionMasivaPreciosDTOBuilder peticion() {
+        return ActualizacionMasivaPreciosDTO.builder().tipo(ActualizacionMasivaPreciosDTO.Tipo.PRECIO).valor(9.99);
+    }
+}
@@ -0,0 +1,70 @@
+package com.levelup.productos.service;
+
+import com.levelup.productos.mapper.ProductosMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductosExportServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ProductosExportService service =
+            new ProductosExportService(jdbcTemplate, new ProductosMapper(), JsonMapper.builder().build());
+
+    @Test
+    void emptyExportWritesNothing() throws Exception {
+        filas();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportar(null, null, out);
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void writesOneLinePerProduct() throws Exception {
+        filas(fila(1L, "Teclado"), fila(2L, "Ratón"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportar(true, null, out);
+
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertTrue(ndjson.endsWith("}\n"));
+        List<String> lineas = ndjson.lines().toList();
+        assertEquals(2, lineas.size());
+        assertTrue(lineas.get(0).contains("\"nombreProducto\":\"Teclado\""));
+        assertTrue(lineas.get(0).contains("\"version\":3"));
+        assertTrue(lineas.get(1).contains("\"nombreProducto\":\"Ratón\""));
+    }
+
+    private void filas(ResultSet... filas) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet fila : filas) {
+                handler.processRow(fila);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet fila(long id, String nombre) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(id);
+        when(rs.getString(2)).thenReturn(nombre);
+        when(rs.getObject(4, Double.class)).thenReturn(10.0);
+        when(rs.getObject(6, Boolean.class)).thenReturn(true);
+        when(rs.getObject(10, Long.class)).thenReturn(3L);
+        return rs;
+    }
+}
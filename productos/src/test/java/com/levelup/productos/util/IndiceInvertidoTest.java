@@ -0,0 +1,66 @@
+package com.levelup.productos.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceInvertidoTest {
+
+    private final IndiceInvertido indice = new IndiceInvertido();
+
+    @Test
+    void requiresAllTermsAndTreatsLastAsPrefix() {
+        indice.indexar(1, Map.of("teclado", 1f, "mecanico", 1f));
+        indice.indexar(2, Map.of("teclado", 1f, "inalambrico", 1f));
+        indice.indexar(3, Map.of("raton", 1f, "inalambrico", 1f));
+
+        assertEquals(List.of(1L, 2L), indice.buscar(List.of("tecl"), id -> true));
+        assertEquals(List.of(2L), indice.buscar(List.of("teclado", "inal"), id -> true));
+        // Solo el último término es prefijo
+        assertEquals(List.of(), indice.buscar(List.of("tecl", "inalambrico"), id -> true));
+        assertEquals(List.of(), indice.buscar(List.of(), id -> true));
+    }
+
+    @Test
+    void higherWeightRanksFirst() {
+        indice.indexar(1, Map.of("teclado", 1f));
+        indice.indexar(2, Map.of("teclado", 3f));
+
+        assertEquals(List.of(2L, 1L), indice.buscar(List.of("teclado"), id -> true));
+    }
+
+    @Test
+    void rareTermsCountMore() {
+        indice.indexar(1, Map.of("raton", 1f));
+        indice.indexar(2, Map.of("raton", 1f));
+        indice.indexar(3, Map.of("ratonera", 1f));
+
+        assertEquals(List.of(3L, 1L, 2L), indice.buscar(List.of("raton"), id -> true));
+    }
+
+    @Test
+    void filterExcludesDocuments() {
+        indice.indexar(1, Map.of("teclado", 1f));
+        indice.indexar(2, Map.of("teclado", 1f));
+
+        assertEquals(List.of(2L), indice.buscar(List.of("teclado"), id -> id != 1));
+    }
+
+    @Test
+    void reindexReplacesTermsAndRemoveDropsDocument() {
+        indice.indexar(1, Map.of("teclado", 1f));
+        indice.indexar(1, Map.of("raton", 1f));
+
+        assertEquals(List.of(), indice.buscar(List.of("teclado"), id -> true));
+        assertEquals(List.of(1L), indice.buscar(List.of("raton"), id -> true));
+        assertEquals(1, indice.size());
+
+        indice.eliminar(1);
+
+        assertEquals(List.of(), indice.buscar(List.of("raton"), id -> true));
+        assertEquals(0, indice.size());
+    }
+}
@@ -0,0 +1,94 @@
+package com.levelup.productos.util;
+
+import com.levelup.productos.util.IndicePrecios.Cambio;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndicePreciosTest {
+
+    @Test
+    void desdeAndHastaBoundInclusiveRange() {
+        IndicePrecios indice = new IndicePrecios.Builder(4)
+                .agregar(1, 10, true)
+                .agregar(2, 20, true)
+                .agregar(3, 20, true)
+                .agregar(4, 30, true)
+                .build();
+
+        assertEquals(1, indice.desde(20));
+        assertEquals(3, indice.hasta(20));
+        assertEquals(0, indice.desde(5));
+        assertEquals(4, indice.hasta(99));
+        assertEquals(indice.desde(15), indice.hasta(15));
+        assertEquals(List.of(2L, 3L), ids(indice, indice.desde(20), indice.hasta(20)));
+    }
+
+    @Test
+    void builderRejectsUnorderedEntries() {
+        IndicePrecios.Builder builder = new IndicePrecios.Builder(2).agregar(2, 10, true);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.agregar(1, 10, true));
+        assertThrows(IllegalArgumentException.class, () -> builder.agregar(3, 5, true));
+    }
+
+    @Test
+    void builderGrowsPastInitialCapacity() {
+        IndicePrecios.Builder builder = new IndicePrecios.Builder(0);
+        for (int i = 0; i < 100; i++) {
+            builder.agregar(i, i, i % 2 == 0);
+        }
+        IndicePrecios indice = builder.build();
+
+        assertEquals(100, indice.size());
+        assertEquals(99, indice.id(99));
+        assertTrue(indice.activo(98));
+        assertFalse(indice.activo(99));
+    }
+
+    @Test
+    void fusionarAppliesInsertsUpdatesAndRemovals() {
+        IndicePrecios indice = new IndicePrecios.Builder(3)
+                .agregar(1, 10, true)
+                .agregar(2, 20, true)
+                .agregar(3, 30, true)
+                .build();
+        Map<Long, Cambio> cambios = new LinkedHashMap<>();
+        cambios.put(2L, Cambio.actualizado(2, 35, false));
+        cambios.put(3L, Cambio.eliminado(3));
+        cambios.put(4L, Cambio.actualizado(4, 5, true));
+        cambios.put(5L, Cambio.actualizado(5, 10, true));
+
+        IndicePrecios fusionado = indice.fusionar(cambios);
+
+        assertEquals(List.of(4L, 1L, 5L, 2L), ids(fusionado, 0, fusionado.size()));
+        assertEquals(35, fusionado.precio(3));
+        assertFalse(fusionado.activo(3));
+        assertTrue(fusionado.activo(0));
+        // El índice original no cambia
+        assertEquals(List.of(1L, 2L, 3L), ids(indice, 0, indice.size()));
+    }
+
+    @Test
+    void fusionarOnEmptyIndexBuildsFromChanges() {
+        IndicePrecios fusionado = IndicePrecios.vacio().fusionar(Map.of(
+                7L, Cambio.actualizado(7, 3, true),
+                8L, Cambio.eliminado(8)));
+
+        assertEquals(List.of(7L), ids(fusionado, 0, fusionado.size()));
+        assertEquals(0, IndicePrecios.vacio().size());
+    }
+
+    private static List<Long> ids(IndicePrecios indice, int desde, int hasta) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = desde; i < hasta; i++) {
+            ids.add(indice.id(i));
+        }
+        return ids;
+    }
+}
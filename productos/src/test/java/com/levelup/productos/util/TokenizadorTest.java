@@ -0,0 +1,34 @@
+package com.levelup.productos.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenizadorTest {
+
+    @Test
+    void lowercasesAndStripsAccents() {
+        assertEquals(List.of("camara", "digital"), Tokenizador.tokens("Cámara DIGITAL"));
+    }
+
+    @Test
+    void keepsEnye() {
+        assertEquals(List.of("año", "nuevo"), Tokenizador.tokens("Año nuevo"));
+        assertNotEquals(Tokenizador.normalizar("año"), Tokenizador.normalizar("ano"));
+    }
+
+    @Test
+    void dropsStopWordsAndPunctuation() {
+        assertEquals(List.of("funda", "movil", "usb", "c"), Tokenizador.tokens("Funda para el móvil, con USB-C"));
+        assertEquals(List.of("teclado", "65"), Tokenizador.tokens("¡Teclado al 65%!"));
+    }
+
+    @Test
+    void blankTextHasNoTokens() {
+        assertTrue(Tokenizador.tokens(null).isEmpty());
+        assertTrue(Tokenizador.tokens("  ").isEmpty());
+        assertTrue(Tokenizador.tokens("de la y").isEmpty());
+    }
+}
@@ -0,0 +1,12 @@
+package com.levelup.security;
+
+/**
+ * El servicio de autenticación no ha podido dar un veredicto sobre el token (caído, timeout
+ * o error 5xx). No es lo mismo que un token inválido: el filtro responde 503, no 401.
+ */
+public class AuthServiceUnavailableException extends RuntimeException {
+
+    public AuthServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,106 @@
+package com.levelup.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecurityException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Claves públicas de auth obtenidas de su endpoint JWKS y guardadas en memoria.
+ * Se vuelven a pedir al caducar el TTL o al recibir un {@code kid} desconocido (rotación),
+ * como mucho una vez por {@code auth.jwks.min-refresh-interval}. Si la firma no cuadra con la
+ * clave guardada para un {@code kid} conocido, {@link JwtVerifier} fuerza una recarga y reintenta.
+ */
+public class JwksKeyLocator extends LocatorAdapter<Key> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeyLocator.class);
+
+    private final RestTemplate restTemplate;
+    private final String jwksUrl;
+    private final long ttlNanos;
+    private final long minRefreshNanos;
+
+    private volatile Map<String, Key> keys = Map.of();
+    private volatile long fetchedAt;
+    private volatile long attemptedAt;
+    private volatile boolean fetched;
+
+    public JwksKeyLocator(RestTemplate restTemplate,
+                          @Value("${auth.url.jwks}") String jwksUrl,
+                          @Value("${auth.jwks.ttl:1h}") Duration ttl,
+                          @Value("${auth.jwks.min-refresh-interval:30s}") Duration minRefreshInterval) {
+        this.restTemplate = restTemplate;
+        this.jwksUrl = jwksUrl;
+        this.ttlNanos = ttl.toNanos();
+        this.minRefreshNanos = minRefreshInterval.toNanos();
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            throw new SecurityException("Token sin kid");
+        }
+
+        Key key = keys.get(keyId);
+        if (key == null || !fetched || System.nanoTime() - fetchedAt > ttlNanos) {
+            refresh();
+            key = keys.get(keyId);
+        }
+        if (key == null) {
+            throw new SecurityException("Clave de firma desconocida: " + keyId);
+        }
+        return key;
+    }
+
+    /**
+     * Recarga el JWKS respetando {@code auth.jwks.min-refresh-interval}.
+     *
+     * @return {@code true} si las claves han cambiado
+     */
+    boolean refreshKeys() {
+        Map<String, Key> anteriores = keys;
+        refresh();
+        return !keys.equals(anteriores);
+    }
+
+    private synchronized void refresh() {
+        long now = System.nanoTime();
+        // Evita consultar auth en cada petición si llega un kid que no existe
+        if (attemptedAt != 0 && now - attemptedAt < minRefreshNanos) {
+            return;
+        }
+        attemptedAt = now;
+        try {
+            String json = restTemplate.getForObject(jwksUrl, String.class);
+            JwkSet jwkSet = Jwks.setParser().build().parse(json);
+
+            Map<String, Key> nuevas = new HashMap<>();
+            for (Jwk<?> jwk : jwkSet.getKeys()) {
+                if (jwk instanceof PublicJwk<?> publicJwk && publicJwk.getId() != null) {
+                    nuevas.put(publicJwk.getId(), publicJwk.toKey());
+                }
+            }
+            keys = Map.copyOf(nuevas);
+            fetchedAt = now;
+            fetched = true;
+        } catch (RestClientException | JwtException | IllegalArgumentException e) {
+            // Se mantienen las claves anteriores hasta el siguiente intento
+            logger.warn("No se pudo obtener el JWKS de auth: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.levelup.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+
+public class JwtVerifier {
+
+    private final JwksKeyLocator keyLocator;
+    private final JwtParser jwtParser;
+
+    public JwtVerifier(JwksKeyLocator keyLocator) {
+        this.keyLocator = keyLocator;
+        // El parser es inmutable y thread-safe, se construye una sola vez
+        this.jwtParser = Jwts.parser()
+                .keyLocator(keyLocator)
+                .build();
+    }
+
+    /**
+     * Verifica firma, expiración y formato del token en el propio proceso,
+     * con la clave pública publicada por el servicio de autenticación.
+     *
+     * @throws io.jsonwebtoken.JwtException si el token no es válido
+     */
+    public Claims verify(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (SignatureException e) {
+            // Auth puede haber cambiado la clave sin cambiar el kid: se recarga el JWKS una vez
+            if (!keyLocator.refreshKeys()) {
+                throw e;
+            }
+            return jwtParser.parseSignedClaims(token).getPayload();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.levelup.security;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationEntry {
+
+    private Long id;
+    private String jti;
+    private Long userId;
+    private Instant revokedAt;
+    private Instant expiresAt;
+
+}
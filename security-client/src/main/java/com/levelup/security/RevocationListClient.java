@@ -0,0 +1,102 @@
+package com.levelup.security;
+
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copia local de la lista de revocación de auth. Se sincroniza por sondeo pidiendo solo
+ * lo nuevo desde la última versión; el filtro de Bloom se descarga únicamente cuando auth
+ * lo reconstruye. Un positivo del filtro se confirma con auth antes de rechazar el token.
+ */
+public class RevocationListClient {
+
+    public enum Estado { VIGENTE, REVOCADO, POSIBLEMENTE_REVOCADO }
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationListClient.class);
+
+    private final RestTemplate restTemplate;
+    private final String revocationsUrl;
+
+    // jti -> expiración del token
+    private final Map<String, Instant> jtisRevocados = new ConcurrentHashMap<>();
+    private final Map<Long, RevocationEntry> usuariosRevocados = new ConcurrentHashMap<>();
+    private volatile BloomFilter filtro;
+    private volatile long version = -1;
+
+    public RevocationListClient(RestTemplate restTemplate,
+                                @Value("${auth.url.revocations}") String revocationsUrl) {
+        this.restTemplate = restTemplate;
+        this.revocationsUrl = revocationsUrl;
+    }
+
+    public Estado comprobar(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && jtisRevocados.containsKey(jti)) {
+            return Estado.REVOCADO;
+        }
+
+        Number userId = claims.get("uid", Number.class);
+        Date issuedAt = claims.getIssuedAt();
+        if (userId != null && issuedAt != null) {
+            RevocationEntry revocacion = usuariosRevocados.get(userId.longValue());
+            if (revocacion != null && !issuedAt.toInstant().isAfter(revocacion.getRevokedAt())) {
+                return Estado.REVOCADO;
+            }
+        }
+
+        BloomFilter actual = filtro;
+        if (jti != null && actual != null && actual.mightContain(jti)) {
+            return Estado.POSIBLEMENTE_REVOCADO;
+        }
+        return Estado.VIGENTE;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.poll-interval-ms:5000}")
+    public void sincronizar() {
+        try {
+            RevocationSnapshotResponse respuesta = restTemplate.getForObject(
+                    revocationsUrl + "?since=" + version, RevocationSnapshotResponse.class);
+            if (respuesta != null) {
+                aplicar(respuesta);
+            }
+        } catch (RestClientException e) {
+            // Se mantiene la última copia conocida hasta el siguiente intento
+            logger.warn("No se pudo sincronizar la lista de revocación: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void aplicar(RevocationSnapshotResponse respuesta) {
+        if (respuesta.getBloomBits() != null) {
+            filtro = BloomFilter.fromBase64(respuesta.getBloomBits(),
+                    respuesta.getBloomSize(), respuesta.getBloomHashes());
+            jtisRevocados.clear();
+            usuariosRevocados.clear();
+        }
+
+        Instant ahora = Instant.now();
+        for (RevocationEntry entrada : respuesta.getEntries()) {
+            if (entrada.getExpiresAt().isBefore(ahora)) {
+                continue;
+            }
+            if (entrada.getJti() != null) {
+                jtisRevocados.put(entrada.getJti(), entrada.getExpiresAt());
+            } else if (entrada.getUserId() != null) {
+                usuariosRevocados.merge(entrada.getUserId(), entrada,
+                        (actual, nueva) -> nueva.getRevokedAt().isAfter(actual.getRevokedAt()) ? nueva : actual);
+            }
+        }
+        jtisRevocados.values().removeIf(expiracion -> expiracion.isBefore(ahora));
+        usuariosRevocados.values().removeIf(entrada -> entrada.getExpiresAt().isBefore(ahora));
+        version = respuesta.getVersion();
+    }
+}
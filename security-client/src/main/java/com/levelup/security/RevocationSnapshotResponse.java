@@ -0,0 +1,21 @@
+package com.levelup.security;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationSnapshotResponse {
+
+    private long snapshotVersion;
+    private long version;
+    // Solo viene informado cuando auth envía el snapshot completo
+    private String bloomBits;
+    private Integer bloomSize;
+    private Integer bloomHashes;
+    private List<RevocationEntry> entries = new ArrayList<>();
+
+}
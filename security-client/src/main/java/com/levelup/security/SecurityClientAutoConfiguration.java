@@ -0,0 +1,14 @@
+package com.levelup.security;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Verificación local de los tokens de auth, compartida por productos, carrito y order.
+ * Cada servicio aporta su {@code RestTemplate}, el {@code MeterRegistry} de actuator y
+ * {@code @EnableScheduling} para el sondeo de la lista de revocación.
+ */
+@AutoConfiguration
+@Import({JwksKeyLocator.class, JwtVerifier.class, TokenValidationCache.class, RevocationListClient.class})
+public class SecurityClientAutoConfiguration {
+}
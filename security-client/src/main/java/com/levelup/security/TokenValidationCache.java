@@ -0,0 +1,97 @@
+package com.levelup.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Veredictos de la validación remota de tokens. Un token válido se guarda durante
+ * {@code auth.cache.ttl} sin pasar de su "exp", que auth devuelve en la cabecera Expires de
+ * /token/check; sin ella, igual que un token inválido, solo durante {@code auth.cache.negative-ttl}.
+ */
+public class TokenValidationCache {
+
+    private final Cache<String, Veredicto> cache;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    public TokenValidationCache(@Value("${auth.cache.max-size:10000}") long maxSize,
+                                @Value("${auth.cache.ttl:5m}") Duration ttl,
+                                @Value("${auth.cache.negative-ttl:10s}") Duration negativeTtl,
+                                MeterRegistry meterRegistry) {
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        // Expone cache.gets{result=hit|miss}, cache.evictions y cache.size en /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tokenValidation");
+    }
+
+    /**
+     * Devuelve el resultado cacheado para el token o lo calcula con la validación remota.
+     * Las peticiones concurrentes del mismo token esperan a una única llamada; si la
+     * validación lanza una excepción no se guarda nada.
+     */
+    public boolean get(String token, Function<String, Veredicto> remoteValidation) {
+        return cache.get(token, remoteValidation).valido();
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(token);
+    }
+
+    private long expiresInNanos(Instant expiresAt) {
+        if (expiresAt == null) {
+            return negativeTtlNanos;
+        }
+        long restanteMillis = expiresAt.toEpochMilli() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, restanteMillis));
+    }
+
+    /**
+     * @param expiresAt "exp" del token según auth; {@code null} si no se conoce
+     */
+    public record Veredicto(boolean valido, Instant expiresAt) {
+
+        public static Veredicto valido(Instant expiresAt) {
+            return new Veredicto(true, expiresAt);
+        }
+
+        public static Veredicto invalido() {
+            return new Veredicto(false, null);
+        }
+    }
+
+    private class TokenExpiry implements Expiry<String, Veredicto> {
+
+        @Override
+        public long expireAfterCreate(String token, Veredicto veredicto, long currentTime) {
+            if (!veredicto.valido()) {
+                return negativeTtlNanos;
+            }
+            // Un token válido nunca se mantiene en caché más allá de su propio "exp"
+            return Math.min(ttlNanos, expiresInNanos(veredicto.expiresAt()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Veredicto veredicto, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, veredicto, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Veredicto veredicto, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
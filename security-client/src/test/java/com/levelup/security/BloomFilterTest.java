@@ -0,0 +1,62 @@
+package com.levelup.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void insertedValuesAreAlwaysFound() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("jti-" + i), "falso negativo para jti-" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRate() {
+        int entries = 20_000;
+        double fpp = 0.01;
+        BloomFilter filter = BloomFilter.create(entries, fpp);
+        for (int i = 0; i < entries; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("ausente-" + i)) {
+                falsePositives++;
+            }
+        }
+        // Margen amplio sobre el 1 % teórico para que el test no sea inestable
+        assertTrue(falsePositives < probes * fpp * 2, "falsos positivos: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(0, 0.01);
+        assertFalse(filter.mightContain("jti"));
+    }
+
+    @Test
+    void base64RoundTripKeepsContents() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("jti-" + i);
+        }
+
+        BloomFilter copy = BloomFilter.fromBase64(filter.toBase64(), filter.getNumBits(), filter.getNumHashes());
+
+        assertEquals(filter.toBase64(), copy.toBase64());
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(copy.mightContain("jti-" + i));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.levelup.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RevocationListClientTest {
+
+    private static final String URL = "http://auth/revocations";
+
+    private RestTemplate restTemplate;
+    private RevocationListClient client;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        client = new RevocationListClient(restTemplate, URL);
+    }
+
+    @Test
+    void fullSnapshotLoadsBloomFilterAndExactEntries() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+        filter.put("jti-bloom");
+        when(restTemplate.getForObject(URL + "?since=-1", RevocationSnapshotResponse.class))
+                .thenReturn(new RevocationSnapshotResponse(5, 6, filter.toBase64(), filter.getNumBits(),
+                        filter.getNumHashes(), List.of(jti(6, "jti-exacto"))));
+
+        client.sincronizar();
+
+        assertEquals(RevocationListClient.Estado.REVOCADO, client.comprobar(claims("jti-exacto")));
+        assertEquals(RevocationListClient.Estado.POSIBLEMENTE_REVOCADO, client.comprobar(claims("jti-bloom")));
+        assertEquals(RevocationListClient.Estado.VIGENTE, client.comprobar(claims("jti-otro")));
+    }
+
+    @Test
+    void deltaIsRequestedFromLastVersionAndKeepsFilter() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+        filter.put("jti-bloom");
+        when(restTemplate.getForObject(URL + "?since=-1", RevocationSnapshotResponse.class))
+                .thenReturn(new RevocationSnapshotResponse(5, 5, filter.toBase64(), filter.getNumBits(),
+                        filter.getNumHashes(), List.of()));
+        when(restTemplate.getForObject(URL + "?since=5", RevocationSnapshotResponse.class))
+                .thenReturn(new RevocationSnapshotResponse(5, 7, null, null, null, List.of(jti(7, "jti-nuevo"))));
+
+        client.sincronizar();
+        client.sincronizar();
+
+        verify(restTemplate).getForObject(eq(URL + "?since=5"), eq(RevocationSnapshotResponse.class));
+        assertEquals(RevocationListClient.Estado.REVOCADO, client.comprobar(claims("jti-nuevo")));
+        assertEquals(RevocationListClient.Estado.POSIBLEMENTE_REVOCADO, client.comprobar(claims("jti-bloom")));
+    }
+
+    @Test
+    void userRevocationRejectsTokensIssuedBeforeIt() {
+        Instant revokedAt = Instant.now().minusSeconds(30);
+        when(restTemplate.getForObject(URL + "?since=-1", RevocationSnapshotResponse.class))
+                .thenReturn(new RevocationSnapshotResponse(0, 1, null, null, null, List.of(
+                        new RevocationEntry(1L, null, 7L, revokedAt, Instant.now().plusSeconds(600)))));
+
+        client.sincronizar();
+
+        Claims before = Jwts.claims().id("a").add("uid", 7L).issuedAt(Date.from(revokedAt.minusSeconds(5))).build();
+        Claims after = Jwts.claims().id("b").add("uid", 7L).issuedAt(Date.from(revokedAt.plusSeconds(5))).build();
+        assertEquals(RevocationListClient.Estado.REVOCADO, client.comprobar(before));
+        assertEquals(RevocationListClient.Estado.VIGENTE, client.comprobar(after));
+    }
+
+    @Test
+    void failedPollKeepsLastKnownList() {
+        when(restTemplate.getForObject(URL + "?since=-1", RevocationSnapshotResponse.class))
+                .thenReturn(new RevocationSnapshotResponse(0, 1, null, null, null, List.of(jti(1, "jti-exacto"))));
+        when(restTemplate.getForObject(URL + "?since=1", RevocationSnapshotResponse.class))
+                .thenThrow(new ResourceAccessException("auth caído"));
+
+        client.sincronizar();
+        client.sincronizar();
+
+        assertEquals(RevocationListClient.Estado.REVOCADO, client.comprobar(claims("jti-exacto")));
+    }
+
+    private static RevocationEntry jti(long id, String jti) {
+        return new RevocationEntry(id, jti, null, Instant.now(), Instant.now().plusSeconds(600));
+    }
+
+    private static Claims claims(String jti) {
+        return Jwts.claims().id(jti).build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.levelup.security;
+
+import com.levelup.security.TokenValidationCache.Veredicto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenValidationCacheTest {
+
+    private final TokenValidationCache cache = new TokenValidationCache(100, Duration.ofMinutes(5),
+            Duration.ofMillis(100), new SimpleMeterRegistry());
+    private final AtomicInteger llamadas = new AtomicInteger();
+
+    @Test
+    void validTokenIsCachedUntilItsExp() throws Exception {
+        Veredicto veredicto = Veredicto.valido(Instant.now().plusMillis(300));
+
+        assertTrue(cache.get("token", t -> contar(veredicto)));
+        Thread.sleep(150);
+        // Pasado negative-ttl sigue en caché: lo que manda es el "exp"
+        assertTrue(cache.get("token", t -> contar(veredicto)));
+        assertEquals(1, llamadas.get());
+
+        Thread.sleep(300);
+        cache.get("token", t -> contar(Veredicto.invalido()));
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    void validTokenWithoutExpIsCachedForNegativeTtl() throws Exception {
+        assertTrue(cache.get("token", t -> contar(Veredicto.valido(null))));
+        Thread.sleep(200);
+
+        cache.get("token", t -> contar(Veredicto.valido(null)));
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    void invalidTokenIsCachedForNegativeTtl() throws Exception {
+        assertFalse(cache.get("token", t -> contar(Veredicto.invalido())));
+        assertFalse(cache.get("token", t -> contar(Veredicto.invalido())));
+        assertEquals(1, llamadas.get());
+
+        Thread.sleep(200);
+        cache.get("token", t -> contar(Veredicto.invalido()));
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    void failedValidationIsNotCached() {
+        assertThrows(AuthServiceUnavailableException.class, () -> cache.get("token", t -> {
+            throw new AuthServiceUnavailableException("caído", null);
+        }));
+
+        assertTrue(cache.get("token", t -> contar(Veredicto.valido(Instant.now().plusSeconds(60)))));
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    void invalidateForcesNewValidation() {
+        cache.get("token", t -> contar(Veredicto.valido(Instant.now().plusSeconds(60))));
+        cache.invalidate("token");
+
+        assertFalse(cache.get("token", t -> contar(Veredicto.invalido())));
+        assertEquals(2, llamadas.get());
+    }
+
+    private Veredicto contar(Veredicto veredicto) {
+        llamadas.incrementAndGet();
+        return veredicto;
+    }
+}